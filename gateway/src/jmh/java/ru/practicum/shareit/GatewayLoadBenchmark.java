@@ -0,0 +1,176 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends bursts of concurrent reads of {@code items} distinct items through a gateway with a small Tomcat thread pool
+ * to a stub server that answers after a fixed delay. The {@code blocking} mode goes through a RestTemplate proxy built
+ * the way the clients used to be, {@code reactive} through the gateway controllers. Prints the peak number of requests
+ * the stub saw in flight at once and the requests it served per burst at the end of each trial. Run with
+ * {@code mvn -Pbenchmark -pl gateway test-compile exec:exec -Djmh.include=GatewayLoadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayLoadBenchmark {
+    private static final int GATEWAY_THREADS = 50;
+    private static final int SERVER_DELAY_MILLIS = 100;
+    private static final byte[] ITEM = ("{\"id\":1,\"name\":\"Drill\",\"description\":\"Cordless\","
+            + "\"available\":true,\"lastBooking\":null,\"nextBooking\":null,\"comments\":[],\"requestId\":null}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"blocking", "reactive"})
+    private String client;
+
+    @Param({"50", "400"})
+    private int concurrency;
+
+    @Param({"400", "10"})
+    private int items;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger served = new AtomicInteger();
+    private int bursts;
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String itemsUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // the stub would otherwise close kept-alive connections beyond 200 idle ones under the gateway's pool
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "1000");
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.setExecutor(serverExecutor);
+        server.createContext("/items", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            served.incrementAndGet();
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                exchange.sendResponseHeaders(200, ITEM.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(ITEM);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        // a pool as large as the gateway's own, so that only the threads limit the blocking mode
+        System.setProperty("http.maxConnections", "500");
+        context = new SpringApplicationBuilder(ShareItGateway.class, BlockingItemProxy.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + GATEWAY_THREADS,
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=WARN");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        itemsUrl = "http://localhost:" + port + (client.equals("blocking") ? "/blocking/items/" : "/items/");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        peakInFlight.set(0);
+        served.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s x%d over %d items: %d requests in flight at the server at most, %.1f served per burst%n",
+                client, concurrency, items, peakInFlight.get(), (double) served.get() / bursts);
+        context.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<HttpResponse<byte[]>> burst() {
+        bursts++;
+        CompletableFuture<HttpResponse<byte[]>>[] responses = new CompletableFuture[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(itemsUrl + (i % items + 1)))
+                    .header("X-Sharer-User-Id", "1")
+                    .build();
+            responses[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+        CompletableFuture.allOf(responses).join();
+
+        return List.of(responses).stream()
+                .map(CompletableFuture::join)
+                .peek(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Gateway answered " + response.statusCode());
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The item read as the gateway served it before the reactive clients: one Tomcat thread per request, blocked on
+     * {@code RestTemplate.exchange} for the whole server round trip.
+     */
+    @RestController
+    public static class BlockingItemProxy {
+        private final RestTemplate rest;
+
+        public BlockingItemProxy(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+            rest = builder
+                    .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/items"))
+                    .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                    .build();
+        }
+
+        @GetMapping("/blocking/items/{itemId}")
+        public ResponseEntity<byte[]> getById(@PathVariable long itemId,
+                                              @RequestHeader("X-Sharer-User-Id") long userId) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            ResponseEntity<byte[]> response = rest.exchange("/" + itemId, HttpMethod.GET,
+                    new HttpEntity<>(headers), byte[].class);
+
+            return ResponseEntity.status(response.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response.getBody());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @SpringBootApplication
 public class ShareItGateway {
@@ -9,4 +11,13 @@ public class ShareItGateway {
         SpringApplication.run(ShareItGateway.class, args);
     }
 
+    /**
+     * Keeps the ETag relayed from the server, or tags the response with one of its body, and answers a matching
+     * If-None-Match from the client with 304 and no body.
+     */
+    @Bean
+    public ShallowEtagHeaderFilter shallowEtagHeaderFilter() {
+        return new ShallowEtagHeaderFilter();
+    }
+
 }
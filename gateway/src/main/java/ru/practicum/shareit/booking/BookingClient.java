@@ -2,61 +2,86 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         WebClient.Builder builder,
+                         RequestCoalescer requestCoalescer,
+                         ResponseCache responseCache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                builder.build(),
+                new DefaultUriBuilderFactory(serverUrl + API_PREFIX),
+                requestCoalescer,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getAllByBooker(long bookerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
+    public Mono<ResponseEntity<Object>> getAllByBooker(long bookerId, BookingSearchParams search, Integer from, Integer size,
+                                                 String cursor) {
+        Map<String, Object> parameters = pageParameters(search, from, size, cursor);
+        return get("?" + query(parameters), bookerId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByOwner(long ownerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    public Mono<ResponseEntity<Object>> getAllByOwner(long ownerId, BookingSearchParams search, Integer from, Integer size,
+                                                String cursor) {
+        Map<String, Object> parameters = pageParameters(search, from, size, cursor);
+        return get("/owner?" + query(parameters), ownerId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long bookingId, long userId) {
+    public Mono<ResponseEntity<Object>> getById(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> create(long userId, ShortBookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ShortBookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> update(long bookingId, long ownerId, boolean approved) {
+    public Mono<ResponseEntity<Object>> update(long bookingId, long ownerId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
+
+    private Map<String, Object> pageParameters(BookingSearchParams search, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", search.getState().name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        putIfPresent(parameters, "cursor", cursor);
+        putIfPresent(parameters, "itemId", search.getItemId());
+        putIfPresent(parameters, "rangeStart", search.getRangeStart());
+        putIfPresent(parameters, "rangeEnd", search.getRangeEnd());
+        return parameters;
+    }
+
+    private void putIfPresent(Map<String, Object> parameters, String name, Object value) {
+        if (value != null) {
+            parameters.put(name, value);
+        }
+    }
+
+    private String query(Map<String, Object> parameters) {
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
+    }
 }
@@ -2,16 +2,21 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingSearchParams;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -23,41 +28,51 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllByBooker(
+    public Mono<ResponseEntity<Object>> getAllByBooker(
             @RequestHeader(name = HEADER_USER_ID_KEY) long bookerId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Positive @RequestParam(name = "itemId", required = false) Long itemId,
+            @RequestParam(name = "rangeStart", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeStart,
+            @RequestParam(name = "rangeEnd", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeEnd
     ) {
         BookingState state = checkBookingState(stateParam);
-        return bookingClient.getAllByBooker(bookerId, state, from, size);
+        BookingSearchParams search = new BookingSearchParams(state, itemId, rangeStart, rangeEnd);
+        return bookingClient.getAllByBooker(bookerId, search, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(
+    public Mono<ResponseEntity<Object>> getAllByOwner(
             @RequestHeader(name = HEADER_USER_ID_KEY) long ownerId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Positive @RequestParam(name = "itemId", required = false) Long itemId,
+            @RequestParam(name = "rangeStart", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeStart,
+            @RequestParam(name = "rangeEnd", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeEnd
     ) {
         BookingState state = checkBookingState(stateParam);
-        return bookingClient.getAllByOwner(ownerId, state, from, size);
+        BookingSearchParams search = new BookingSearchParams(state, itemId, rangeStart, rangeEnd);
+        return bookingClient.getAllByOwner(ownerId, search, from, size, cursor);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@PathVariable long bookingId,
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long bookingId,
                                           @RequestHeader(name = HEADER_USER_ID_KEY) long userId) {
         return bookingClient.getById(bookingId, userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(name = HEADER_USER_ID_KEY) long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(name = HEADER_USER_ID_KEY) long userId,
                                          @Valid @RequestBody ShortBookingDto bookingDto) {
         return bookingClient.create(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> update(
+    public Mono<ResponseEntity<Object>> update(
             @PathVariable long bookingId,
             @RequestHeader(name = HEADER_USER_ID_KEY) long ownerId,
             @RequestParam boolean approved
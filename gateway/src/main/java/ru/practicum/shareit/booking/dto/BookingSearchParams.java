@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingSearchParams {
+    private BookingState state;
+    private Long itemId;
+    private LocalDateTime rangeStart;
+    private LocalDateTime rangeEnd;
+}
@@ -2,103 +2,162 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+    /**
+     * Headers describing the server connection rather than the response; the gateway connection sets its own.
+     * Content-Length is set again from the relayed body, so cached responses replay with it.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade", "content-length", "date"
+    );
+
+    protected final WebClient rest;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final RequestCoalescer requestCoalescer;
+    private final ResponseCache responseCache;
+
+    public BaseClient(WebClient rest, UriBuilderFactory uriBuilderFactory, RequestCoalescer requestCoalescer,
+                      ResponseCache responseCache) {
         this.rest = rest;
+        this.uriBuilderFactory = uriBuilderFactory;
+        this.requestCoalescer = requestCoalescer;
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getCached(String path) {
+        return getCached(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> getCached(String path, long userId) {
+        return getCached(path, userId, null);
+    }
+
+    /**
+     * A GET answered from the {@link ResponseCache} when the server confirms the cached response is still current.
+     */
+    protected Mono<ResponseEntity<Object>> getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        RequestKey key = new RequestKey(uri, userId);
+
+        return requestCoalescer.coalesce(key,
+                responseCache.revalidate(key, eTag -> exchange(HttpMethod.GET, uri, userId, eTag, null)));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(
+    /**
+     * Relays the server response as raw bytes: the body is never parsed, only the status and the end-to-end
+     * headers are carried over to the client. Nothing blocks while the server answers, the servlet request is
+     * completed asynchronously. Identical GETs in flight together share one server call.
+     */
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(
             HttpMethod method,
             String path,
             Long userId,
             @Nullable Map<String, Object> parameters,
             @Nullable T body
     ) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-        ResponseEntity<Object> response;
-
-        try {
-            if (parameters != null) {
-                response = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                response = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        URI uri = expand(path, parameters);
+
+        if (method == HttpMethod.GET) {
+            return requestCoalescer.coalesce(new RequestKey(uri, userId), exchange(method, uri, userId, null, body));
+        }
+
+        return exchange(method, uri, userId, null, body);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(
+            HttpMethod method,
+            URI uri,
+            Long userId,
+            @Nullable String eTag,
+            @Nullable T body
+    ) {
+        WebClient.RequestBodySpec request = rest.method(method)
+                .uri(uri)
+                .headers(headers -> headers.addAll(defaultHeaders(userId, eTag)));
+
+        if (body != null) {
+            request.bodyValue(body);
         }
 
-        return prepareGatewayResponse(response);
+        return request.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> relay(response.getStatusCode(), response.getHeaders(), response.getBody()));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return uriBuilderFactory.expand(path, parameters != null ? parameters : Map.of());
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String eTag) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -107,20 +166,28 @@ public class BaseClient {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
 
+        if (eTag != null) {
+            headers.setIfNoneMatch(eTag);
+        }
+
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static ResponseEntity<Object> relay(HttpStatus status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    responseBuilder.header(name, values.toArray(String[]::new));
+                }
+            });
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
         }
 
-        return responseBuilder.build();
+        return responseBuilder.contentLength(body.length).body(body);
     }
 }
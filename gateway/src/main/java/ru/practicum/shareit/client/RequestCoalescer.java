@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lets identical GETs in flight at the same time share one server call: the first request for a key calls the
+ * server, the ones arriving before its response is relayed get the same response. A call is only cancelled when
+ * every request waiting on it is, and once it ends, however it ends, only its own entry is removed.
+ * <p>
+ * Requests are counted as {@code shareit-server.requests.coalescing{result=upstream|coalesced}}, the share of
+ * coalesced ones as {@code shareit-server.requests.coalescing.ratio} and the distinct GETs waiting for the server as
+ * {@code shareit-server.requests.coalescing.in.flight}.
+ */
+@Component
+public class RequestCoalescer {
+    private static final String METRIC = ServerConnector.NAME + ".requests.coalescing";
+
+    private final Map<RequestKey, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstream;
+    private final Counter coalesced;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.upstream = Counter.builder(METRIC)
+                .tag("result", "upstream")
+                .description("GETs sent to the server or answered by an identical GET already in flight")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(METRIC)
+                .tag("result", "coalesced")
+                .description("GETs sent to the server or answered by an identical GET already in flight")
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".ratio", this, RequestCoalescer::ratio)
+                .description("Share of GETs answered by an identical GET already in flight")
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".in.flight", inFlight, Map::size)
+                .description("Distinct GETs waiting for the server")
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(RequestKey key, Mono<ResponseEntity<Object>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+            Mono<ResponseEntity<Object>> leader = call
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .share();
+            self.set(leader);
+            Mono<ResponseEntity<Object>> current = inFlight.putIfAbsent(key, leader);
+
+            if (current != null) {
+                coalesced.increment();
+                return current;
+            }
+
+            upstream.increment();
+            return leader;
+        });
+    }
+
+    private double ratio() {
+        double total = upstream.count() + coalesced.count();
+
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+}
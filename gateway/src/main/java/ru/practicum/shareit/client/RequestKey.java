@@ -0,0 +1,14 @@
+package ru.practicum.shareit.client;
+
+import lombok.Value;
+
+import java.net.URI;
+
+/**
+ * Identifies a server GET by its expanded path and query and the user it is made for.
+ */
+@Value
+public class RequestKey {
+    URI uri;
+    Long userId;
+}
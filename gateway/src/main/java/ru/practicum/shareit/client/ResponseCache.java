@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Server responses carrying an ETag, bounded by their size in bytes. A cached response is never served without
+ * asking the server: the call is made with its ETag as If-None-Match and a 304 is answered from the cache, so only
+ * changed responses cross the wire with a body.
+ * <p>
+ * Lookups, evictions and size are published as {@code cache.*{cache=responses}}, revalidations as
+ * {@code cache.revalidations{cache=responses,result=not_modified|modified}}.
+ */
+@Component
+public class ResponseCache {
+    public static final String NAME = "responses";
+
+    private final Cache<RequestKey, ResponseEntity<Object>> responses;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-server.response-cache.max-size:16MB}") DataSize maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher(ResponseCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, NAME);
+        this.notModified = revalidations(meterRegistry, "not_modified");
+        this.modified = revalidations(meterRegistry, "modified");
+    }
+
+    /**
+     * Makes the call with the ETag of the cached response for the key, or with none, and keeps the response it gets.
+     */
+    public Mono<ResponseEntity<Object>> revalidate(RequestKey key, Function<String, Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = responses.getIfPresent(key);
+
+            return call.apply(cached != null ? cached.getHeaders().getETag() : null)
+                    .map(response -> {
+                        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                            notModified.increment();
+                            return cached;
+                        }
+
+                        if (cached != null) {
+                            modified.increment();
+                        }
+
+                        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+                            responses.put(key, response);
+                        } else {
+                            responses.invalidate(key);
+                        }
+
+                        return response;
+                    });
+        });
+    }
+
+    private static Counter revalidations(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.revalidations")
+                .tag("cache", NAME)
+                .tag("result", result)
+                .description("Cached responses revalidated with the server")
+                .register(meterRegistry);
+    }
+
+    private static int weigh(RequestKey key, ResponseEntity<Object> response) {
+        int headers = response.getHeaders().entrySet().stream()
+                .mapToInt(header -> header.getKey().length() + header.getValue().stream().mapToInt(String::length).sum())
+                .sum();
+        int body = response.getBody() instanceof byte[] ? ((byte[]) response.getBody()).length : 0;
+
+        return key.getUri().toString().length() + headers + body;
+    }
+}
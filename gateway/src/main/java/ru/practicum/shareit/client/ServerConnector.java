@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The keep-alive connection pool every client shares towards the server; Boot applies the connector to each
+ * {@code WebClient.Builder}. Idle connections are closed before the server's keep-alive timeout and evicted in the
+ * background, connections found closed are dropped when leased.
+ * <p>
+ * Pool gauges are published as {@code reactor.netty.connection.provider.*{name=shareit-server}}, the time a request
+ * waits for a connection as {@code shareit-server.connection.lease}.
+ */
+@Component
+public class ServerConnector implements ClientHttpConnector, DisposableBean {
+    public static final String NAME = "shareit-server";
+
+    private static final String LEASE_REQUESTED = ServerConnector.class.getName() + ".leaseRequested";
+
+    private final ConnectionProvider connections;
+    private final ClientHttpConnector connector;
+
+    public ServerConnector(MeterRegistry meterRegistry,
+                           @Value("${shareit-server.pool.max-connections:500}") int maxConnections,
+                           @Value("${shareit-server.pool.acquire-timeout:5s}") Duration acquireTimeout,
+                           @Value("${shareit-server.pool.max-idle-time:15s}") Duration maxIdleTime,
+                           @Value("${shareit-server.pool.max-life-time:5m}") Duration maxLifeTime,
+                           @Value("${shareit-server.pool.evict-interval:10s}") Duration evictInterval,
+                           @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+                           @Value("${shareit-server.response-timeout:30s}") Duration responseTimeout) {
+        this.connections = ConnectionProvider.builder(NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(acquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+        Timer lease = Timer.builder(NAME + ".connection.lease")
+                .description("Time a request waited for a pooled connection to the server")
+                .register(meterRegistry);
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .doOnRequest((request, connection) -> request.currentContextView().<Long>getOrEmpty(LEASE_REQUESTED)
+                        .ifPresent(requested -> lease.record(System.nanoTime() - requested, TimeUnit.NANOSECONDS)));
+        this.connector = new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        return connector.connect(method, uri, requestCallback)
+                .contextWrite(context -> context.put(LEASE_REQUESTED, System.nanoTime()));
+    }
+
+    @Override
+    public void destroy() {
+        connections.dispose();
+    }
+}
@@ -2,15 +2,19 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,45 +22,67 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      WebClient.Builder builder,
+                      RequestCoalescer requestCoalescer,
+                      ResponseCache responseCache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                builder.build(),
+                new DefaultUriBuilderFactory(serverUrl + API_PREFIX),
+                requestCoalescer,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> addItem(ItemDto itemDto, long ownerId) {
+    public Mono<ResponseEntity<Object>> addItem(ItemDto itemDto, long ownerId) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long ownerId) {
-        return get("/" + itemId, ownerId);
+    public Mono<ResponseEntity<Object>> getItemById(long itemId, long ownerId) {
+        return getCached("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(long ownerId) {
-        return get("/", ownerId);
+    public Mono<ResponseEntity<Object>> getItemsByOwner(long ownerId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> updateItem(long itemId, ItemDto itemDto, long ownerId) {
+    public Mono<ResponseEntity<Object>> updateItem(long itemId, ItemDto itemDto, long ownerId) {
         return patch("/" + itemId, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> search(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> search(String text, Integer from, Integer size, boolean count) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
-                "size", size
+                "size", size,
+                "count", count
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return getCached("/search?text={text}&from={from}&size={size}&count={count}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/" + itemId + "/availability");
+        if (from != null) {
+            parameters.put("from", from.toString());
+            path.append("?from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to.toString());
+            path.append(from != null ? "&" : "?").append("to={to}");
+        }
+        return get(path.toString(), null, parameters);
     }
 
-    public ResponseEntity<Object> deleteItem(long itemId, long ownerId) {
+    public Mono<ResponseEntity<Object>> deleteItem(long itemId, long ownerId) {
         return delete("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> commentSave(long id, long userId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> commentSave(long id, long userId, CommentDto commentDto) {
         return post("/" + id + "/comment", userId, commentDto);
     }
 
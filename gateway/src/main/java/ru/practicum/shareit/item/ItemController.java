@@ -3,10 +3,12 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
@@ -15,6 +17,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @Controller
@@ -24,54 +27,73 @@ import java.util.Collections;
 @Validated
 public class ItemController {
     private static final String HEADER_USER_ID_KEY = "X-Sharer-User-Id";
+    private static final String HEADER_TOTAL_COUNT_KEY = "X-Total-Count";
     @Autowired
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getByOwner(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId) {
-        return itemClient.getItemsByOwner(ownerId);
+    public Mono<ResponseEntity<Object>> getByOwner(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
+                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                             @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        return itemClient.getItemsByOwner(ownerId, from, size);
     }
 
     @GetMapping(path = "/{itemId}", name = "itemId")
-    public ResponseEntity<Object> getById(@Positive @PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> getById(@Positive @PathVariable long itemId,
                                           @RequestHeader(value = HEADER_USER_ID_KEY) long ownerId) {
         return itemClient.getItemById(itemId, ownerId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @Positive @PathVariable long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> search(
+    public Mono<ResponseEntity<Object>> search(
             @RequestParam String text,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-            @Positive @RequestParam(defaultValue = "20") Integer size
+            @Positive @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "false") boolean count
     ) {
         if (text.isBlank()) {
-            return ResponseEntity.ok(Collections.EMPTY_LIST);
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+
+            if (count) {
+                responseBuilder.header(HEADER_TOTAL_COUNT_KEY, "0");
+            }
+
+            return Mono.just(responseBuilder.body(Collections.EMPTY_LIST));
         }
 
-        return itemClient.search(text, from, size);
+        return itemClient.search(text, from, size, count);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
+    public Mono<ResponseEntity<Object>> add(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
                                       @RequestBody @Validated(CreateItemDto.class) ItemDto itemDto) {
         return itemClient.addItem(itemDto, ownerId);
     }
 
     @PatchMapping(path = "/{itemId}", name = "itemId")
-    public ResponseEntity<Object> update(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
                                          @Positive @PathVariable long itemId,
                                          @RequestBody @Valid ItemDto itemDto) {
         return itemClient.updateItem(itemId, itemDto, ownerId);
     }
 
     @DeleteMapping(path = "/{itemId}", name = "itemId")
-    public ResponseEntity<Object> delete(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
+    public Mono<ResponseEntity<Object>> delete(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
                                          @Positive @PathVariable long itemId) {
         return itemClient.deleteItem(itemId, ownerId);
     }
 
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> comment(
+    public Mono<ResponseEntity<Object>> comment(
             @Positive @PathVariable long id,
             @RequestHeader(name = HEADER_USER_ID_KEY) long userId,
             @RequestBody @Validated(CreateCommentDto.class) CommentDto commentDto
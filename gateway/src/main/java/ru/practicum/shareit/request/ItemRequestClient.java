@@ -2,12 +2,14 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -17,16 +19,19 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             WebClient.Builder builder,
+                             RequestCoalescer requestCoalescer,
+                             ResponseCache responseCache) {
         super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                builder.build(),
+                new DefaultUriBuilderFactory(serverUrl + API_PREFIX),
+                requestCoalescer,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getAllByRequestorId(long requestorId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByRequestorId(long requestorId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -34,11 +39,11 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", requestorId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long ownerId, long requestId) {
-        return get("/" + requestId, ownerId);
+    public Mono<ResponseEntity<Object>> getById(long ownerId, long requestId) {
+        return getCached("/" + requestId, ownerId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAll(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,7 +51,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all", userId, parameters);
     }
 
-    public ResponseEntity<Object> add(ItemRequestDto itemRequestDto, long requestorId) {
+    public Mono<ResponseEntity<Object>> add(ItemRequestDto itemRequestDto, long requestorId) {
         return post("", requestorId, itemRequestDto);
     }
 }
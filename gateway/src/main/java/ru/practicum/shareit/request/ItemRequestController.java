@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -22,27 +23,27 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllByRequestorId(@RequestHeader(value = HEADER_USER_ID_KEY) long requestorId,
+    public Mono<ResponseEntity<Object>> getAllByRequestorId(@RequestHeader(value = HEADER_USER_ID_KEY) long requestorId,
                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                       @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
         return itemRequestClient.getAllByRequestorId(requestorId, from, size);
     }
 
     @GetMapping(path = "/{requestId}", name = "requestId")
-    public ResponseEntity<Object> getById(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
                                           @Positive @PathVariable long requestId) {
         return itemRequestClient.getById(ownerId, requestId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader(value = HEADER_USER_ID_KEY) long userId,
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(value = HEADER_USER_ID_KEY) long userId,
                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                          @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
         return itemRequestClient.getAll(userId, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(value = HEADER_USER_ID_KEY) long requestorId,
+    public Mono<ResponseEntity<Object>> add(@RequestHeader(value = HEADER_USER_ID_KEY) long requestorId,
                                       @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return itemRequestClient.add(itemRequestDto, requestorId);
     }
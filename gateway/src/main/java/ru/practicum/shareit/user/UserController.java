@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -20,27 +21,27 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return userClient.getAllUsers();
     }
 
     @GetMapping(path = "/{userId}", name = "userId")
-    public ResponseEntity<Object> getById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long userId) {
         return userClient.getUserById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated(CreateUserDto.class) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Validated(CreateUserDto.class) @RequestBody UserDto userDto) {
         return userClient.addUser(userDto);
     }
 
     @PatchMapping(path = "/{userId}", name = "userId")
-    public ResponseEntity<Object> update(@PathVariable long userId, @Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable long userId, @Valid @RequestBody UserDto userDto) {
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping(path = "/{userId}", name = "userId")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable long userId) {
         return userClient.deleteUser(userId);
     }
 }
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.Disposable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCoalescerTest {
+    private static final int THREADS = 8;
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final StubServer server = new StubServer();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new BaseClient(server.webClient(), new DefaultUriBuilderFactory("http://server"),
+                new RequestCoalescer(meterRegistry), new ResponseCache(meterRegistry, DataSize.ofKilobytes(16)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_shouldShareOneServerCallBetweenConcurrentIdenticalRequests() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<ResponseEntity<Object>>>> submitted = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            submitted.add(executor.submit(() -> {
+                start.await();
+                return client.get("/items/1", 1L).toFuture();
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (Future<CompletableFuture<ResponseEntity<Object>>> future : submitted) {
+            responses.add(future.get());
+        }
+
+        server.respond(0, ClientResponse.create(HttpStatus.OK).body(new String(BODY, StandardCharsets.UTF_8)).build());
+
+        assertEquals(1, server.requests().size());
+        for (CompletableFuture<ResponseEntity<Object>> response : responses) {
+            assertEquals(HttpStatus.OK, response.join().getStatusCode());
+            assertArrayEquals(BODY, (byte[]) response.join().getBody());
+        }
+        assertEquals(1, count("upstream"));
+        assertEquals(THREADS - 1, count("coalesced"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void get_shouldNotShareServerCallBetweenUsers() {
+        client.get("/items/1", 1L).toFuture();
+        client.get("/items/1", 2L).toFuture();
+
+        assertEquals(2, server.requests().size());
+        assertEquals("1", server.requests().get(0).headers().getFirst("X-Sharer-User-Id"));
+        assertEquals("2", server.requests().get(1).headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(2, inFlight());
+    }
+
+    @Test
+    void get_shouldForgetFailedServerCall() {
+        CompletableFuture<ResponseEntity<Object>> first = client.get("/items/1", 1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = client.get("/items/1", 1L).toFuture();
+
+        server.fail(0, new IllegalStateException("connection reset"));
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertEquals(0, inFlight());
+
+        client.get("/items/1", 1L).toFuture();
+        assertEquals(2, server.requests().size());
+    }
+
+    @Test
+    void get_shouldForgetServerCallOnceEveryRequestIsCancelled() {
+        Disposable first = client.get("/items/1", 1L).subscribe();
+        Disposable second = client.get("/items/1", 1L).subscribe();
+
+        first.dispose();
+        assertEquals(1, inFlight());
+
+        second.dispose();
+        assertEquals(0, inFlight());
+
+        client.get("/items/1", 1L).toFuture();
+        assertThat(server.requests()).hasSize(2);
+        assertEquals(1, inFlight());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("shareit-server.requests.coalescing").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("shareit-server.requests.coalescing.in.flight").gauge().value();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+    private static final String BODY = "{\"id\":1,\"name\":\"Drill\"}";
+    private static final String ETAG = "\"v1\"";
+
+    private final StubServer server = new StubServer();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void getCached_shouldReplayCachedResponseWhenServerAnswersNotModified() {
+        BaseClient client = client(DataSize.ofKilobytes(16));
+        CompletableFuture<ResponseEntity<Object>> first = client.getCached("/items/1", 1L).toFuture();
+        server.respond(0, ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.ETAG, ETAG)
+                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(BODY.length()))
+                .header(HttpHeaders.CONNECTION, "keep-alive")
+                .header(HttpHeaders.DATE, "Sun, 18 Oct 2026 12:00:00 GMT")
+                .body(BODY)
+                .build());
+        first.join();
+
+        CompletableFuture<ResponseEntity<Object>> second = client.getCached("/items/1", 1L).toFuture();
+        assertEquals(List.of(ETAG), server.requests().get(1).headers().getIfNoneMatch());
+        server.respond(1, ClientResponse.create(HttpStatus.NOT_MODIFIED)
+                .header(HttpHeaders.ETAG, ETAG)
+                .build());
+
+        ResponseEntity<Object> replayed = second.join();
+        assertSame(first.join(), replayed);
+        assertEquals(HttpStatus.OK, replayed.getStatusCode());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) replayed.getBody());
+        assertEquals(ETAG, replayed.getHeaders().getETag());
+        assertEquals(BODY.length(), replayed.getHeaders().getContentLength());
+        assertFalse(replayed.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertFalse(replayed.getHeaders().containsKey(HttpHeaders.DATE));
+        assertEquals(1, revalidations("not_modified"));
+    }
+
+    @Test
+    void getCached_shouldKeepResponsesOfUsersApart() {
+        BaseClient client = client(DataSize.ofKilobytes(16));
+        client.getCached("/items/1", 1L).toFuture();
+        server.respond(0, ok(BODY));
+
+        client.getCached("/items/1", 2L).toFuture();
+        client.getCached("/items/1", 1L).toFuture();
+
+        assertTrue(server.requests().get(1).headers().getIfNoneMatch().isEmpty());
+        assertEquals(List.of(ETAG), server.requests().get(2).headers().getIfNoneMatch());
+    }
+
+    @Test
+    void getCached_shouldNotKeepResponsesHeavierThanMaxSize() throws InterruptedException {
+        BaseClient client = client(DataSize.ofBytes(256));
+        client.getCached("/items/1", 1L).toFuture();
+        server.respond(0, ok(BODY));
+        client.getCached("/items/2", 1L).toFuture();
+        server.respond(1, ok("x".repeat(512)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (evictions() == 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        client.getCached("/items/1", 1L).toFuture();
+        client.getCached("/items/2", 1L).toFuture();
+
+        assertEquals(1, evictions());
+        assertEquals(List.of(ETAG), server.requests().get(2).headers().getIfNoneMatch());
+        assertTrue(server.requests().get(3).headers().getIfNoneMatch().isEmpty());
+    }
+
+    @Test
+    void getCached_shouldNotKeepResponsesWithoutEtag() {
+        BaseClient client = client(DataSize.ofKilobytes(16));
+        client.getCached("/items/1", 1L).toFuture();
+        server.respond(0, ClientResponse.create(HttpStatus.OK).body(BODY).build());
+
+        client.getCached("/items/1", 1L).toFuture();
+
+        assertNull(server.requests().get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private BaseClient client(DataSize maxSize) {
+        return new BaseClient(server.webClient(), new DefaultUriBuilderFactory("http://server"),
+                new RequestCoalescer(meterRegistry), new ResponseCache(meterRegistry, maxSize));
+    }
+
+    private static ClientResponse ok(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.ETAG, ETAG)
+                .body(body)
+                .build();
+    }
+
+    private double revalidations(String result) {
+        return meterRegistry.get("cache.revalidations").tag("result", result).counter().count();
+    }
+
+    private double evictions() {
+        return meterRegistry.get("cache.evictions").tag("cache", ResponseCache.NAME).functionCounter().count();
+    }
+}
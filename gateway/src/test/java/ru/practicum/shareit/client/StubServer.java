@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stands in for the server behind a {@link WebClient}: records every request and answers it only when told to.
+ */
+class StubServer implements ExchangeFunction {
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private final List<Sinks.One<ClientResponse>> responses = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Mono<ClientResponse> exchange(ClientRequest request) {
+        Sinks.One<ClientResponse> response = Sinks.one();
+        responses.add(response);
+        requests.add(request);
+
+        return response.asMono();
+    }
+
+    WebClient webClient() {
+        return WebClient.builder()
+                .exchangeFunction(this)
+                .build();
+    }
+
+    List<ClientRequest> requests() {
+        return requests;
+    }
+
+    void respond(int request, ClientResponse response) {
+        responses.get(request).tryEmitValue(response);
+    }
+
+    void fail(int request, Throwable error) {
+        responses.get(request).tryEmitError(error);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.view.ItemViews;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs service calls the way a request does, inside an open entity manager, once through the transactional
+ * service proxies and once on the bare service beans where every repository call commits on its own. Prints the
+ * JDBC connection acquisitions, flushes and transactions per call at the end of each trial; read and write
+ * calls touching several tables show the difference. Run with
+ * {@code mvn -Pbenchmark -pl server test-compile exec:exec -Djmh.include=TransactionBoundaryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBoundaryBenchmark {
+    private static final int ITEMS = 100;
+
+    @Param({"transactional", "perRepositoryCall"})
+    private String boundary;
+
+    @Param({"getItem", "getItemsOfOwner", "getBookingsOfOwner", "createBooking", "commentSave"})
+    private String call;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private long owner;
+    private long booker;
+    private long item;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@shareit.ru')");
+        jdbcTemplate.update("insert into users (name, email) values ('booker', 'booker@shareit.ru')");
+        owner = jdbcTemplate.queryForObject("select min(user_id) from users", Long.class);
+        booker = owner + 1;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item " + i, owner});
+        }
+        jdbcTemplate.batchUpdate("insert into item (name, description, available, owner_id) "
+                + "values (?, 'description', true, ?)", items);
+        item = jdbcTemplate.queryForObject("select min(item_id) from item", Long.class);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            bookings.add(new Object[]{now.minusDays(2), now.minusDays(1), item + i, owner, booker, "APPROVED"});
+            bookings.add(new Object[]{now.plusDays(1), now.plusDays(2), item + i, owner, booker, "WAITING"});
+        }
+        jdbcTemplate.batchUpdate("insert into booking (start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?, ?)", bookings);
+
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(item + i);
+        }
+        context.getBean(ItemViews.class).projectAll(itemIds);
+
+        itemService = service(ItemService.class);
+        bookingService = service(BookingService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s %s: %.2f connections, %.2f flushes, %.2f transactions per call%n",
+                boundary, call,
+                (double) statistics.getConnectCount() / calls,
+                (double) statistics.getFlushCount() / calls,
+                (double) statistics.getTransactionCount() / calls);
+        context.close();
+    }
+
+    @Benchmark
+    public Object request() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            calls++;
+            switch (call) {
+                case "getItem":
+                    return itemService.getById(item + calls % ITEMS, booker);
+                case "getItemsOfOwner":
+                    return itemService.getByOwner(owner, 0, 20);
+                case "getBookingsOfOwner":
+                    return bookingService.getAllByOwner(owner, BookingFilter.of("ALL"), 0, 20, null);
+                case "createBooking":
+                    LocalDateTime start = LocalDateTime.now().plusDays(10).plusHours(calls);
+                    return bookingService.create(booker, BookingDto.builder()
+                            .itemId(item + calls % ITEMS)
+                            .start(start)
+                            .end(start.plusMinutes(30))
+                            .build());
+                default:
+                    return itemService.commentSave(item + calls % ITEMS, booker,
+                            CommentDto.builder().text("Fine").build());
+            }
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    private <T> T service(Class<T> type) {
+        T service = context.getBean(type);
+
+        return boundary.equals("transactional") ? service : AopTestUtils.getUltimateTargetObject(service);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-state JPQL finders the booking lists used to switch between with the single specification
+ * search on an H2 table. Run with {@code mvn -Pbenchmark -pl server test-compile exec:exec -Djmh.include=BookingSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingSearchBenchmark {
+    private static final String SUMMARY = "select new ru.practicum.shareit.booking.dto.BookingSummaryDto("
+            + "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) "
+            + "from Booking b "
+            + "join b.item i ";
+    private static final String ORDER = "order by b.start desc";
+    private static final Sort SEARCH_ORDER = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+    private static final int USERS = 100;
+    private static final int ITEMS = 1000;
+    private static final int PAGE = 20;
+
+    @Param({"100000"})
+    private int bookings;
+
+    @Param({"ALL", "CURRENT", "WAITING"})
+    private BookingState state;
+
+    @Param({"booker", "owner"})
+    private String role;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private BookingRepository bookingRepository;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"user " + i, "user" + i + "@shareit.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+        long firstUser = jdbcTemplate.queryForObject("select min(user_id) from users", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"item " + i, firstUser + i % USERS});
+        }
+        jdbcTemplate.batchUpdate("insert into item (name, description, available, owner_id) "
+                + "values (?, 'description', true, ?)", items);
+        long firstItem = jdbcTemplate.queryForObject("select min(item_id) from item", Long.class);
+
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.now().minusDays(365);
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(2 * 365 * 24));
+            int item = random.nextInt(ITEMS);
+            rows.add(new Object[]{start, start.plusHours(1 + random.nextInt(72)),
+                    firstItem + item, firstUser + item % USERS, firstUser + random.nextInt(USERS),
+                    statuses[random.nextInt(statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("insert into booking (start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?, ?)", rows);
+
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        userId = firstUser + USERS / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingSummaryDto> derivedFinders() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            String owner = role.equals("owner") ? "i.owner.id = ?1 " : "b.booker.id = ?1 ";
+            TypedQuery<BookingSummaryDto> query;
+            switch (state) {
+                case CURRENT:
+                    query = entityManager.createQuery(SUMMARY + "where " + owner
+                                    + "and b.start < ?2 and b.end > ?3 " + ORDER, BookingSummaryDto.class)
+                            .setParameter(2, LocalDateTime.now())
+                            .setParameter(3, LocalDateTime.now());
+                    break;
+                case WAITING:
+                    query = entityManager.createQuery(SUMMARY + "where " + owner
+                                    + "and b.status = ?2 " + ORDER, BookingSummaryDto.class)
+                            .setParameter(2, BookingStatus.WAITING);
+                    break;
+                default:
+                    query = entityManager.createQuery(SUMMARY + "where " + owner + ORDER, BookingSummaryDto.class);
+            }
+
+            return query.setParameter(1, userId)
+                    .setMaxResults(PAGE)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<BookingSummaryDto> specificationSearch() {
+        Specification<Booking> owner = role.equals("owner")
+                ? BookingSpecifications.itemOwnerId(userId)
+                : BookingSpecifications.bookerId(userId);
+        Specification<Booking> specification = Specification.where(owner)
+                .and(BookingSpecifications.matching(state, BookingFilter.of(state.name()), LocalDateTime.now()));
+
+        return bookingRepository.findSummaries(specification, SEARCH_ORDER, 0, PAGE);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JPQL LIKE scan with the in-memory trigram index on an H2 catalogue.
+ * Run with {@code mvn -Pbenchmark -pl server test-compile exec:exec -Djmh.include=ItemSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {
+            "drill", "saw", "ladder", "hammer", "cordless", "electric", "garden", "hose", "tent", "kayak",
+            "projector", "camera", "tripod", "bike", "helmet", "mixer", "sander", "grinder", "wrench", "jack",
+            "steel", "wooden", "portable", "heavy", "compact", "professional", "outdoor", "kitchen", "vintage", "spare"
+    };
+
+    @Param({"10000", "100000"})
+    private int items;
+
+    @Param({"dr", "cordless dri", "quux"})
+    private String query;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private ConfigurableApplicationContext context;
+    private JpaItemSearchEngine jpaEngine;
+    private InMemoryItemSearchEngine memoryEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@shareit.ru')");
+        long ownerId = jdbcTemplate.queryForObject("select max(user_id) from users", Long.class);
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            rows.add(new Object[]{phrase(random, 3), phrase(random, 12), random.nextInt(10) != 0, ownerId});
+        }
+        jdbcTemplate.batchUpdate("insert into item (name, description, available, owner_id) values (?, ?, ?, ?)", rows);
+
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        jpaEngine = new JpaItemSearchEngine(itemRepository);
+        memoryEngine = new InMemoryItemSearchEngine(itemRepository);
+        memoryEngine.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> jpaLikePage() {
+        return jpaEngine.search(query, pageable);
+    }
+
+    @Benchmark
+    public List<Item> inMemoryIndexPage() {
+        return memoryEngine.search(query, pageable);
+    }
+
+    @Benchmark
+    public long jpaLikeCount() {
+        return jpaEngine.count(query);
+    }
+
+    @Benchmark
+    public long inMemoryIndexCount() {
+        return memoryEngine.count(query);
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+
+        return phrase.toString();
+    }
+}
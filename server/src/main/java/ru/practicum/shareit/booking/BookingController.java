@@ -1,9 +1,16 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -11,26 +18,37 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String HEADER_NEXT_CURSOR_KEY = "X-Next-Cursor";
     private final BookingService bookingService;
 
     @GetMapping
-    public List<BookingDto> getAllByBooker(
+    public ResponseEntity<List<BookingSummaryDto>> getAllByBooker(
             @RequestHeader(name = USER_ID) long bookerId,
             @RequestParam(name = "state", defaultValue = "ALL") String state,
+            @RequestParam(name = "itemId", required = false) Long itemId,
+            @RequestParam(name = "rangeStart", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeStart,
+            @RequestParam(name = "rangeEnd", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeEnd,
             @RequestParam(name = "from", required = false) Integer from,
-            @RequestParam(name = "size", required = false) Integer size
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
-        return bookingService.getAllByBooker(bookerId, state, from, size);
+        BookingFilter filter = filter(state, itemId, rangeStart, rangeEnd);
+        return withNextCursor(bookingService.getAllByBooker(bookerId, filter, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllByOwner(
+    public ResponseEntity<List<BookingSummaryDto>> getAllByOwner(
             @RequestHeader(name = USER_ID) long ownerId,
             @RequestParam(name = "state", defaultValue = "ALL") String state,
+            @RequestParam(name = "itemId", required = false) Long itemId,
+            @RequestParam(name = "rangeStart", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeStart,
+            @RequestParam(name = "rangeEnd", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime rangeEnd,
             @RequestParam(name = "from", required = false) Integer from,
-            @RequestParam(name = "size", required = false) Integer size
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
-        return bookingService.getAllByOwner(ownerId, state, from, size);
+        BookingFilter filter = filter(state, itemId, rangeStart, rangeEnd);
+        return withNextCursor(bookingService.getAllByOwner(ownerId, filter, from, size, cursor), size);
     }
 
     @GetMapping("/{bookingId}")
@@ -55,4 +73,26 @@ public class BookingController {
     ) {
         return bookingService.update(bookingId, ownerId, approved);
     }
+
+    private BookingFilter filter(String state, Long itemId, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return BookingFilter.builder()
+                .state(state)
+                .itemId(itemId)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .build();
+    }
+
+    private ResponseEntity<List<BookingSummaryDto>> withNextCursor(List<BookingSummaryDto> bookings, Integer size) {
+        if (size == null || bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        BookingSummaryDto last = bookings.get(bookings.size() - 1);
+        String cursor = new PageCursor(last.getStart(), last.getId()).encode();
+
+        return ResponseEntity.ok()
+                .header(HEADER_NEXT_CURSOR_KEY, cursor)
+                .body(bookings);
+    }
 }
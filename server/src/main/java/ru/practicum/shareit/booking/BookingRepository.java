@@ -1,54 +1,55 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.availability.BookingInterval;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(long bookerId,
-                                                                             LocalDateTime start,
-                                                                             LocalDateTime end,
-                                                                             Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(long bookerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(long bookerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(long bookerId, LocalDateTime start, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSeekRepository {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
     List<Booking> findAllByItemIdAndBookerIdAndStatusAndEndBeforeOrderByStartDesc(long itemId, long bookerId, BookingStatus status, LocalDateTime date, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(long ownerId, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(long ownerId,
-                                                                                LocalDateTime start,
-                                                                                LocalDateTime end,
-                                                                                Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(long ownerId,
-                                                                   LocalDateTime end,
-                                                                   Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(long ownerId,
-                                                                    LocalDateTime start,
-                                                                    Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(long ownerId,
-                                                                BookingStatus status,
-                                                                Pageable pageable);
-
-    Optional<Booking> findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDesc(long itemId,
-                                                                                  BookingStatus status,
-                                                                                  LocalDateTime start);
-
-    Optional<Booking> findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAsc(long itemId,
-                                                                                BookingStatus status,
-                                                                                LocalDateTime start);
+    @Query("select b " +
+            "from Booking b " +
+            "join b.item i " +
+            "where i.id in ?1 and b.status <> ?2 and b.start < ?3 " +
+            "and b.start = (select max(b2.start) " +
+            "from Booking b2 " +
+            "where b2.item.id = i.id and b2.status <> ?2 and b2.start < ?3)")
+    List<Booking> findLastByItemIdIn(Collection<Long> itemIds, BookingStatus status, LocalDateTime start);
+
+    @Query("select b " +
+            "from Booking b " +
+            "join b.item i " +
+            "where i.id in ?1 and b.status <> ?2 and b.start > ?3 " +
+            "and b.start = (select min(b2.start) " +
+            "from Booking b2 " +
+            "where b2.item.id = i.id and b2.status <> ?2 and b2.start > ?3)")
+    List<Booking> findNextByItemIdIn(Collection<Long> itemIds, BookingStatus status, LocalDateTime start);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end " +
+            "from Booking b " +
+            "where b.status in ?1 and b.end > ?2")
+    List<BookingInterval> findAllIntervals(Collection<BookingStatus> statuses, LocalDateTime end);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end " +
+            "from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingInterval> findAllIntervalsByItemId(long itemId, Collection<BookingStatus> statuses, LocalDateTime end);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end " +
+            "from Booking b " +
+            "where (b.booker.id = ?1 or b.owner.id = ?1) and b.status in ?2 and b.end > ?3")
+    List<BookingInterval> findAllIntervalsByUserId(long userId, Collection<BookingStatus> statuses, LocalDateTime end);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingSeekRepository {
+    List<BookingSummaryDto> findSummaries(Specification<Booking> specification, Sort sort, long offset, int limit);
+}
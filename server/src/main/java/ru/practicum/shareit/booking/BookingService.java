@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -11,7 +13,7 @@ public interface BookingService {
 
     BookingDto update(long bookingId, long ownerId, boolean approved);
 
-    List<BookingDto> getAllByBooker(long bookerId, String state, Integer from, Integer size);
+    List<BookingSummaryDto> getAllByBooker(long bookerId, BookingFilter filter, Integer from, Integer size, String cursor);
 
-    List<BookingDto> getAllByOwner(long ownerId, String state, Integer from, Integer size);
+    List<BookingSummaryDto> getAllByOwner(long ownerId, BookingFilter filter, Integer from, Integer size, String cursor);
 }
@@ -1,35 +1,55 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.enums.BookingPermission;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.error.model.BadRequestException;
+import ru.practicum.shareit.error.model.ConflictException;
 import ru.practicum.shareit.error.model.DataNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.PaginationService;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String NO_OVERLAP_CONSTRAINT = "booking_no_overlap";
+    private static final String ALREADY_BOOKED_MESSAGE = "Item is already booked for these dates";
+    private static final Sort SEARCH_ORDER = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final PaginationService paginationService;
+    private final AvailabilityIndex availabilityIndex;
+    private final ItemLocks itemLocks;
+    private final ItemViewCache itemViewCache;
+    private final ItemBookingSummaries itemBookingSummaries;
 
     @Override
     public BookingDto getById(long bookingId, long userId) {
@@ -37,10 +57,11 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public BookingDto create(long userId, BookingDto bookingDto) {
         Booking booking = prepareDao(bookingDto);
         Optional<Item> item = itemRepository.findById(bookingDto.getItemId());
-        Optional<User> user = userRepository.findById(userId);
+        Optional<User> user = userCache.findById(userId);
 
         if (user.isEmpty()) {
             throw new DataNotFoundException("User not found");
@@ -69,140 +90,133 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(BookingStatus.WAITING);
         booking.setBooker(user.get());
         booking.setItem(item.get());
+        booking.setOwner(item.get().getOwner());
 
-        return prepareDto(bookingRepository.save(booking));
+        return prepareDto(admit(booking));
     }
 
     @Override
+    @Transactional
     public BookingDto update(long bookingId, long ownerId, boolean approved) {
         Booking booking = findById(bookingId, ownerId, BookingPermission.OWNER);
+        itemLocks.lockAll(List.of(booking.getItem().getId()));
 
         if (booking.getStatus().equals(BookingStatus.APPROVED)) {
             throw new BadRequestException("Can not change status after APPROVED");
         }
 
+        boolean wasBlocking = AvailabilityIndex.BLOCKING_STATUSES.contains(booking.getStatus());
         BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
         booking.setStatus(status);
 
-        return prepareDto(bookingRepository.save(booking));
+        if (!wasBlocking && approved) {
+            return prepareDto(admit(booking));
+        }
+
+        Booking savedBooking = bookingRepository.save(booking);
+        if (status == BookingStatus.REJECTED) {
+            itemBookingSummaries.onRejected(savedBooking);
+        }
+        AfterCommit.run(() -> {
+            if (status == BookingStatus.REJECTED) {
+                availabilityIndex.remove(savedBooking);
+            }
+            itemViewCache.invalidate(savedBooking.getItem().getId());
+        });
+
+        return prepareDto(savedBooking);
     }
 
     @Override
-    public List<BookingDto> getAllByBooker(long bookerId, String state, Integer from, Integer size) {
-        try {
-            List<Booking> result = new ArrayList<>();
-            BookingState bookingState = BookingState.valueOf(state);
+    public List<BookingSummaryDto> getAllByBooker(long bookerId, BookingFilter filter, Integer from, Integer size,
+                                                  String cursor) {
+        return search(bookerId, BookingSpecifications.bookerId(bookerId), filter, from, size, cursor);
+    }
 
-            Optional<User> booker = userRepository.findById(bookerId);
-            if (booker.isEmpty()) {
-                throw new DataNotFoundException("User not found");
-            }
+    @Override
+    public List<BookingSummaryDto> getAllByOwner(long ownerId, BookingFilter filter, Integer from, Integer size,
+                                                 String cursor) {
+        return search(ownerId, BookingSpecifications.itemOwnerId(ownerId), filter, from, size, cursor);
+    }
 
-            Pageable pageable = paginationService.getPageable(from, size);
-
-            switch (bookingState) {
-                case ALL:
-                    result = bookingRepository.findAllByBookerIdOrderByStartDesc(
-                            bookerId,
-                            pageable);
-                    break;
-                case PAST:
-                    result = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
-                            bookerId,
-                            LocalDateTime.now(),
-                            pageable);
-                    break;
-                case CURRENT:
-                    result = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                            bookerId,
-                            LocalDateTime.now(),
-                            LocalDateTime.now(),
-                            pageable);
-                    break;
-                case FUTURE:
-                    result = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                            bookerId,
-                            LocalDateTime.now(),
-                            pageable);
-                    break;
-                case WAITING:
-                    result = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                            bookerId,
-                            BookingStatus.WAITING,
-                            pageable);
-                    break;
-                case REJECTED:
-                    result = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                            bookerId,
-                            BookingStatus.REJECTED,
-                            pageable);
-                    break;
-            }
+    /**
+     * Every filter combination is one query ordered by (start, id) descending, so pages walk the role's
+     * (key, start_time, booking_id) index and check the state and range predicates on the rows they visit.
+     */
+    private List<BookingSummaryDto> search(long userId, Specification<Booking> role, BookingFilter filter,
+                                           Integer from, Integer size, String cursor) {
+        BookingState state = parseState(filter.getState());
+
+        if (filter.getRangeStart() != null && filter.getRangeEnd() != null
+                && !filter.getRangeStart().isBefore(filter.getRangeEnd())) {
+            throw new BadRequestException("Range end must be after range start");
+        }
+
+        if (userCache.findById(userId).isEmpty()) {
+            throw new DataNotFoundException("User not found");
+        }
+
+        Specification<Booking> specification = Specification.where(role)
+                .and(BookingSpecifications.matching(state, filter, LocalDateTime.now()));
+
+        if (isSeek(from, size, cursor)) {
+            PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
 
-            return result.stream()
-                    .map(bookingMapper::toDto)
-                    .collect(Collectors.toList());
+            return bookingRepository.findSummaries(specification.and(BookingSpecifications.after(after)),
+                    SEARCH_ORDER, 0, paginationService.getLimit(size));
+        }
+
+        Pageable pageable = paginationService.getPageable(from, size);
+        if (pageable == null) {
+            return bookingRepository.findSummaries(specification, SEARCH_ORDER, 0, Integer.MAX_VALUE);
+        }
+
+        return bookingRepository.findSummaries(specification, SEARCH_ORDER, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    private BookingState parseState(String state) {
+        try {
+            return BookingState.valueOf(state);
         } catch (IllegalArgumentException illegalArgumentException) {
             throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
         }
     }
 
-    @Override
-    public List<BookingDto> getAllByOwner(long ownerId, String state, Integer from, Integer size) {
-        try {
-            List<Booking> result = new ArrayList<>();
-            BookingState bookingState = BookingState.valueOf(state);
+    private boolean isSeek(Integer from, Integer size, String cursor) {
+        return cursor != null || (from != null && from == 0 && size != null);
+    }
 
-            Optional<User> owner = userRepository.findById(ownerId);
-            if (owner.isEmpty()) {
-                throw new DataNotFoundException("User not found");
-            }
+    /**
+     * Saves a booking that starts blocking its item. Bookings of one item are admitted one at a time
+     * on this node, each holding the item lock until its transaction completes and entering the index
+     * once it has committed; a conflict in the index is confirmed against the database, and the database
+     * exclusion constraint covers concurrent admissions on other nodes.
+     */
+    private Booking admit(Booking booking) {
+        long itemId = booking.getItem().getId();
+        itemLocks.lockAll(List.of(itemId));
+        if (!availabilityIndex.isFree(itemId, booking.getStart(), booking.getEnd())
+                && !availabilityIndex.recheck(itemId, booking.getStart(), booking.getEnd())) {
+            throw new ConflictException(ALREADY_BOOKED_MESSAGE);
+        }
 
-            Pageable pageable = paginationService.getPageable(from, size);
-
-            switch (bookingState) {
-                case ALL:
-                    result = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId, pageable);
-                    break;
-                case PAST:
-                    result = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                            ownerId,
-                            LocalDateTime.now(),
-                            pageable);
-                    break;
-                case CURRENT:
-                    result = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                            ownerId,
-                            LocalDateTime.now(),
-                            LocalDateTime.now(),
-                            pageable);
-                    break;
-                case FUTURE:
-                    result = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
-                            ownerId,
-                            LocalDateTime.now(),
-                            pageable);
-                    break;
-                case WAITING:
-                    result = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                            ownerId,
-                            BookingStatus.WAITING,
-                            pageable);
-                    break;
-                case REJECTED:
-                    result = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                            ownerId,
-                            BookingStatus.REJECTED,
-                            pageable);
-                    break;
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(NO_OVERLAP_CONSTRAINT)) {
+                throw new ConflictException(ALREADY_BOOKED_MESSAGE);
             }
-
-            return result.stream()
-                    .map(bookingMapper::toDto)
-                    .collect(Collectors.toList());
-        } catch (IllegalArgumentException illegalArgumentException) {
-            throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
+            throw e;
         }
+
+        itemBookingSummaries.onBooked(savedBooking);
+        AfterCommit.run(() -> {
+            availabilityIndex.add(savedBooking);
+            itemViewCache.invalidate(savedBooking.getItem().getId());
+        });
+
+        return savedBooking;
     }
 
     private Booking prepareDao(BookingDto bookingDto) {
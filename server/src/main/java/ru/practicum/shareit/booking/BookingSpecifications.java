@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookerId(long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> itemOwnerId(long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> itemId(Long itemId) {
+        if (itemId == null) {
+            return null;
+        }
+
+        return (root, query, builder) -> builder.equal(root.get("item").get("id"), itemId);
+    }
+
+    /**
+     * Bookings that share at least a moment with the range; an open bound leaves that side unrestricted.
+     */
+    public static Specification<Booking> overlaps(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        Specification<Booking> endsAfterStart = rangeStart == null ? null
+                : (root, query, builder) -> builder.greaterThan(root.get("end"), rangeStart);
+        Specification<Booking> startsBeforeEnd = rangeEnd == null ? null
+                : (root, query, builder) -> builder.lessThan(root.get("start"), rangeEnd);
+
+        return Specification.where(endsAfterStart).and(startsBeforeEnd);
+    }
+
+    public static Specification<Booking> matching(BookingState state, BookingFilter filter, LocalDateTime now) {
+        return Specification.where(state(state, now))
+                .and(itemId(filter.getItemId()))
+                .and(overlaps(filter.getRangeStart(), filter.getRangeEnd()));
+    }
+
+    public static Specification<Booking> state(BookingState state, LocalDateTime now) {
+        switch (state) {
+            case PAST:
+                return (root, query, builder) -> builder.lessThan(root.get("end"), now);
+            case CURRENT:
+                return (root, query, builder) -> builder.and(
+                        builder.lessThan(root.get("start"), now),
+                        builder.greaterThan(root.get("end"), now));
+            case FUTURE:
+                return (root, query, builder) -> builder.greaterThan(root.get("start"), now);
+            case WAITING:
+                return status(BookingStatus.WAITING);
+            case REJECTED:
+                return status(BookingStatus.REJECTED);
+            default:
+                return null;
+        }
+    }
+
+    public static Specification<Booking> status(BookingStatus status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> after(PageCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), cursor.getStart()),
+                builder.and(
+                        builder.equal(root.get("start"), cursor.getStart()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+}
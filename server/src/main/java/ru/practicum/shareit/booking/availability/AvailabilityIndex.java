@@ -0,0 +1,221 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Per-item interval trees of the WAITING and APPROVED bookings that have not ended yet.
+ * <p>
+ * The index is a pre-check kept by this node only: a conflict it reports is confirmed against the database with
+ * {@link #recheck}, since the booking may have been rejected or deleted on another node. Until the first build
+ * every item is looked up in the database. The index is built once on startup; ended bookings are pruned
+ * periodically one tree at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemLocks itemLocks;
+    private volatile Map<Long, IntervalTree> trees;
+
+    /**
+     * Loads and swaps in the index holding every item lock, so no admission commits in between and gets lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        itemLocks.lockEvery();
+        Map<Long, IntervalTree> rebuilt = new ConcurrentHashMap<>();
+        List<BookingInterval> intervals = bookingRepository.findAllIntervals(BLOCKING_STATUSES, LocalDateTime.now());
+        for (BookingInterval interval : intervals) {
+            rebuilt.computeIfAbsent(interval.getItemId(), itemId -> new IntervalTree())
+                    .insert(interval.getId(), interval.getStart(), interval.getEnd());
+        }
+
+        trees = rebuilt;
+        log.info("Availability index built for {} bookings of {} items", intervals.size(), rebuilt.size());
+    }
+
+    /**
+     * Drops ended bookings, and the trees they leave empty under the item lock, so an admission never adds to a
+     * tree that is no longer indexed. Holds one item lock at a time and no connection, so writers keep going.
+     */
+    @Scheduled(initialDelayString = "${shareit.booking.availability.prune-delay:300000}",
+            fixedDelayString = "${shareit.booking.availability.prune-delay:300000}")
+    public void prune() {
+        Map<Long, IntervalTree> current = trees;
+        if (current == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+        for (Map.Entry<Long, IntervalTree> entry : current.entrySet()) {
+            IntervalTree tree = entry.getValue();
+            boolean empty;
+            synchronized (tree) {
+                removed += tree.removeEnded(now);
+                empty = tree.size() == 0;
+            }
+
+            if (empty) {
+                Lock lock = itemLocks.get(entry.getKey());
+                lock.lock();
+                try {
+                    synchronized (tree) {
+                        if (tree.size() == 0) {
+                            current.remove(entry.getKey(), tree);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        log.debug("Availability index pruned of {} ended bookings", removed);
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = find(itemId);
+        if (tree == null) {
+            return true;
+        }
+
+        synchronized (tree) {
+            return !tree.overlaps(start, end);
+        }
+    }
+
+    /**
+     * Reloads the item from the database and checks it again; call it holding the item lock.
+     */
+    public boolean recheck(long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = load(itemId);
+        Map<Long, IntervalTree> current = trees;
+        if (current != null) {
+            current.put(itemId, tree);
+        }
+
+        return !tree.overlaps(start, end);
+    }
+
+    public void add(Booking booking) {
+        Map<Long, IntervalTree> current = trees;
+        if (current == null) {
+            return;
+        }
+
+        IntervalTree tree = current.computeIfAbsent(booking.getItem().getId(), itemId -> new IntervalTree());
+
+        synchronized (tree) {
+            tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+
+    public void remove(Booking booking) {
+        IntervalTree tree = find(booking.getItem().getId());
+        if (tree == null) {
+            return;
+        }
+
+        synchronized (tree) {
+            tree.remove(booking.getId(), booking.getStart());
+        }
+    }
+
+    public void removeItem(long itemId) {
+        Map<Long, IntervalTree> current = trees;
+        if (current != null) {
+            current.remove(itemId);
+        }
+    }
+
+    /**
+     * Blocking bookings made by the user or on the user's items; look them up before the user is deleted.
+     */
+    public List<BookingInterval> findAllOfUser(long userId) {
+        return bookingRepository.findAllIntervalsByUserId(userId, BLOCKING_STATUSES, LocalDateTime.now());
+    }
+
+    public void removeAll(Collection<BookingInterval> intervals) {
+        Map<Long, IntervalTree> current = trees;
+        if (current == null) {
+            return;
+        }
+
+        for (BookingInterval interval : intervals) {
+            IntervalTree tree = current.get(interval.getItemId());
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.remove(interval.getId(), interval.getStart());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the gaps between blocking bookings of the item within [from, to).
+     */
+    public List<TimeWindow> getFreeWindows(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeWindow> busy = List.of();
+        IntervalTree tree = find(itemId);
+        if (tree != null) {
+            synchronized (tree) {
+                busy = tree.findOverlapping(from, to);
+            }
+        }
+
+        List<TimeWindow> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeWindow window : busy) {
+            if (window.getStart().isAfter(cursor)) {
+                free.add(new TimeWindow(cursor, window.getStart()));
+            }
+            if (window.getEnd().isAfter(cursor)) {
+                cursor = window.getEnd();
+            }
+        }
+
+        if (cursor.isBefore(to)) {
+            free.add(new TimeWindow(cursor, to));
+        }
+
+        return free;
+    }
+
+    private IntervalTree find(long itemId) {
+        Map<Long, IntervalTree> current = trees;
+
+        return current != null ? current.get(itemId) : load(itemId);
+    }
+
+    private IntervalTree load(long itemId) {
+        IntervalTree tree = new IntervalTree();
+        for (BookingInterval interval : bookingRepository.findAllIntervalsByItemId(itemId, BLOCKING_STATUSES,
+                LocalDateTime.now())) {
+            tree.insert(interval.getId(), interval.getStart(), interval.getEnd());
+        }
+
+        return tree;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+
+public interface BookingInterval {
+    long getId();
+
+    long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,252 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AVL tree of half-open [start, end) intervals ordered by (start, id), each node augmented with the
+ * maximum end of its subtree. Not thread-safe.
+ */
+public class IntervalTree {
+    private Node root;
+    private int size;
+
+    public void insert(long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(id, start, end));
+    }
+
+    public boolean remove(long id, LocalDateTime start) {
+        int before = size;
+        root = remove(root, id, start);
+
+        return size < before;
+    }
+
+    /**
+     * Removes the intervals ending at or before the moment and returns how many were removed.
+     */
+    public int removeEnded(LocalDateTime moment) {
+        List<Node> ended = new ArrayList<>();
+        collectEnded(root, moment, ended);
+        for (Node node : ended) {
+            root = remove(root, node.id, node.start);
+        }
+
+        return ended.size();
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the intervals overlapping [start, end) ordered by start.
+     */
+    public List<TimeWindow> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<TimeWindow> result = new ArrayList<>();
+        collect(root, start, end, result);
+
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void collect(Node node, LocalDateTime start, LocalDateTime end, List<TimeWindow> result) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+
+        collect(node.left, start, end, result);
+
+        if (!node.start.isBefore(end)) {
+            return;
+        }
+
+        if (node.end.isAfter(start)) {
+            result.add(new TimeWindow(node.start, node.end));
+        }
+
+        collect(node.right, start, end, result);
+    }
+
+    private static void collectEnded(Node node, LocalDateTime moment, List<Node> result) {
+        if (node == null) {
+            return;
+        }
+
+        collectEnded(node.left, moment, result);
+
+        if (!node.start.isBefore(moment)) {
+            return;
+        }
+
+        if (!node.end.isAfter(moment)) {
+            result.add(node);
+        }
+
+        collectEnded(node.right, moment, result);
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) {
+            size++;
+            return inserted;
+        }
+
+        int compare = compare(inserted.start, inserted.id, node);
+        if (compare < 0) {
+            node.left = insert(node.left, inserted);
+        } else if (compare > 0) {
+            node.right = insert(node.right, inserted);
+        } else {
+            node.end = inserted.end;
+        }
+
+        return balance(node);
+    }
+
+    private Node remove(Node node, long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+
+        int compare = compare(start, id, node);
+        if (compare < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (compare > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node.left = removeMin(node.left);
+
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = max(node.end, max(maxEnd(node.left), maxEnd(node.right)));
+    }
+
+    private static int compare(LocalDateTime start, long id, Node node) {
+        int compare = start.compareTo(node.start);
+
+        return compare != 0 ? compare : Long.compare(id, node.id);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static LocalDateTime maxEnd(Node node) {
+        return node == null ? null : node.maxEnd;
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
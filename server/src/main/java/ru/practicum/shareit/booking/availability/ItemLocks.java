@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fixed set of locks striped by item id, so bookings of one item are admitted one at a time while
+ * distinct items rarely contend.
+ * <p>
+ * Writers take the locks inside their transaction, after it holds its connection, and keep them until it
+ * completes. A holder thus never waits for a pooled connection that a thread waiting for the lock has taken.
+ * They take every lock they need at once with {@link #lockAll} before their first write, so no holder waits
+ * for a lock while holding row locks that the lock's holder waits for.
+ */
+@Component
+public class ItemLocks {
+    private final Lock[] stripes;
+
+    public ItemLocks(@Value("${shareit.booking.lock-stripes:256}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(long itemId) {
+        return stripes[stripe(itemId)];
+    }
+
+    /**
+     * Locks of the items in stripe order, so holders of several locks never wait on each other in a cycle.
+     */
+    public List<Lock> getAll(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .map(this::stripe)
+                .distinct()
+                .sorted()
+                .map(stripe -> stripes[stripe])
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Takes the locks of the items in stripe order and holds them until the current transaction completes.
+     */
+    public void lockAll(Collection<Long> itemIds) {
+        for (Lock lock : getAll(itemIds)) {
+            lock.lock();
+            unlockAfterCompletion(lock);
+        }
+    }
+
+    /**
+     * Takes every lock in stripe order and holds them until the current transaction completes, stopping all
+     * writers meanwhile.
+     */
+    public void lockEvery() {
+        for (Lock lock : stripes) {
+            lock.lock();
+            unlockAfterCompletion(lock);
+        }
+    }
+
+    /**
+     * Releases the lock once the current transaction has completed, so the next holder reads what was written
+     * under it; without a transaction the lock is released right away.
+     */
+    public static void unlockAfterCompletion(Lock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripe(long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+
+        return hash & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional narrowing of a booking list; unset fields do not restrict the result.
+ */
+@Getter
+@Builder
+@ToString
+@EqualsAndHashCode
+public class BookingFilter {
+    @Builder.Default
+    private final String state = "ALL";
+    private final Long itemId;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+
+    public static BookingFilter of(String state) {
+        return BookingFilter.builder()
+                .state(state)
+                .build();
+    }
+}
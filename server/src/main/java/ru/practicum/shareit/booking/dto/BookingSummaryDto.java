@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking list element built straight from a query projection, without loading the booking entity.
+ * Keeps the JSON paths of {@link BookingDto} that list clients read.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BookingSummaryDto {
+    private final long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final long itemId;
+    private final ItemSummary item;
+    private final BookerSummary booker;
+
+    public BookingSummaryDto(long id,
+                             LocalDateTime start,
+                             LocalDateTime end,
+                             BookingStatus status,
+                             long itemId,
+                             String itemName,
+                             long bookerId) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.itemId = itemId;
+        this.item = new ItemSummary(itemId, itemName);
+        this.booker = new BookerSummary(bookerId);
+    }
+
+    @Value
+    public static class ItemSummary {
+        long id;
+        String name;
+    }
+
+    @Value
+    public static class BookerSummary {
+        long id;
+    }
+}
@@ -8,7 +8,7 @@ public enum BookingPermission {
     OWNER {
         @Override
         public boolean check(Booking booking, Long userId) {
-            return booking.getItem().getOwner().getId() == userId;
+            return booking.getOwner().getId() == userId;
         }
     },
     BOOKER {
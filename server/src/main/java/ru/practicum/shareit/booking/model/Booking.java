@@ -22,11 +22,15 @@ public class Booking {
     private long id;
 
     @JoinColumn(name = "item_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Item item;
 
+    @JoinColumn(name = "owner_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User owner;
+
     @JoinColumn(name = "booker_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User booker;
 
     @Column(name = "start_time")
@@ -1,10 +1,22 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(long itemId);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c " +
+            "from Comment c " +
+            "where c.item.id in ?1")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select distinct c.item.id " +
+            "from Comment c " +
+            "where c.author.id = ?1")
+    List<Long> findAllItemIdsByAuthorId(long authorId);
 }
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.availability.TimeWindow;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -13,11 +17,14 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private static final String HEADER_USER_ID_KEY = "X-Sharer-User-Id";
+    private static final String HEADER_TOTAL_COUNT_KEY = "X-Total-Count";
     private final ItemService itemService;
 
     @GetMapping
-    public List<ItemDto> getByOwner(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId) {
-        return itemService.getByOwner(ownerId);
+    public List<ItemDto> getByOwner(@RequestHeader(value = HEADER_USER_ID_KEY) long ownerId,
+                                    @RequestParam(name = "from", required = false) Integer from,
+                                    @RequestParam(name = "size", required = false) Integer size) {
+        return itemService.getByOwner(ownerId, from, size);
     }
 
     @GetMapping(path = "/{itemId}", name = "itemId")
@@ -26,8 +33,28 @@ public class ItemController {
     }
 
     @GetMapping(path = "/search")
-    public List<ItemDto> search(@RequestParam(name = "text") String text) {
-        return itemService.search(text);
+    public ResponseEntity<List<ItemDto>> search(@RequestParam(name = "text") String text,
+                                                @RequestParam(name = "from", required = false) Integer from,
+                                                @RequestParam(name = "size", required = false) Integer size,
+                                                @RequestParam(name = "count", defaultValue = "false") boolean count) {
+        List<ItemDto> items = itemService.search(text, from, size);
+
+        if (count) {
+            return ResponseEntity.ok()
+                    .header(HEADER_TOTAL_COUNT_KEY, String.valueOf(itemService.searchCount(text)))
+                    .body(items);
+        }
+
+        return ResponseEntity.ok(items);
+    }
+
+    @GetMapping(path = "/{itemId}/availability")
+    public List<TimeWindow> getAvailability(
+            @PathVariable long itemId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping
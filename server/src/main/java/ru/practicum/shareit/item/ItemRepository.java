@@ -1,22 +1,74 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i " +
+            "from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available is true " +
+            "order by i.id")
+    List<Item> findAllByText(String text, Pageable pageable);
+
+    @Query("select count(i) " +
             "from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
             "and i.available is true")
-    List<Item> findAllByText(String text);
+    long countAllByText(String text);
 
-    List<Item> findAllByOrderById();
+    @Query(value = "select * " +
+            "from item i " +
+            "where i.available " +
+            "and (upper(i.name) like concat('%', upper(?1), '%') " +
+            "or upper(i.description) like concat('%', upper(?1), '%')) " +
+            "order by word_similarity(upper(?1), upper(i.name)) desc, " +
+            "word_similarity(upper(?1), upper(i.description)) desc, " +
+            "i.item_id",
+            nativeQuery = true)
+    List<Item> findAllByTextRanked(String text, Pageable pageable);
+
+    @Query(value = "select count(*) " +
+            "from item i " +
+            "where i.available " +
+            "and (upper(i.name) like concat('%', upper(?1), '%') " +
+            "or upper(i.description) like concat('%', upper(?1), '%'))",
+            nativeQuery = true)
+    long countAllByTextRanked(String text);
+
+    @Query("select i " +
+            "from Item i " +
+            "where i.available is true")
+    List<Item> findAllAvailable();
+
+    @Query("select i " +
+            "from Item i " +
+            "where i.requestId in ?1 " +
+            "order by i.id")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i.id " +
+            "from Item i " +
+            "where i.id between ?1 and ?2 " +
+            "order by i.id")
+    List<Long> findAllIdsBetween(long fromId, long toId);
+
+    @Query("select i.id " +
+            "from Item i " +
+            "where not exists (select v.itemId from ItemView v where v.itemId = i.id) " +
+            "order by i.id")
+    List<Long> findAllIdsWithoutView();
 
-    List<Item> findAllByRequestId(long requestId);
+    @Query("select coalesce(max(i.id), 0) " +
+            "from Item i")
+    long findMaxId();
 }
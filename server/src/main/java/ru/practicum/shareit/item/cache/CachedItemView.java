@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Owner's view of an item, valid until the next booking starts and shifts last/next booking.
+ */
+@Getter
+public class CachedItemView {
+    private final long ownerId;
+    private final ItemDto view;
+    private final LocalDateTime expiresAt;
+
+    public CachedItemView(long ownerId, ItemDto view, LocalDateTime expiresAt) {
+        this.ownerId = ownerId;
+        this.view = copy(view);
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isFresh(LocalDateTime now) {
+        return expiresAt == null || now.isBefore(expiresAt);
+    }
+
+    public ItemDto viewFor(long userId) {
+        ItemDto result = copy(view);
+        if (userId != ownerId) {
+            result.setLastBooking(null);
+            result.setNextBooking(null);
+        }
+
+        return result;
+    }
+
+    private static ItemDto copy(ItemDto itemDto) {
+        return itemDto.toBuilder()
+                .comments(itemDto.getComments() == null ? null : new ArrayList<>(itemDto.getComments()))
+                .build();
+    }
+}
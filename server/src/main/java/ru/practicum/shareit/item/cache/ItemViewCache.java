@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded W-TinyLFU cache of item views. Entries are dropped by booking, comment and item writes and
+ * expire on their own when the next booking starts. Hit and miss counts are published as
+ * {@code cache.gets{cache=item-views}}.
+ * <p>
+ * A view is only stored if its item was not invalidated since its loading began, so a load racing
+ * with a write never publishes the state from before that write. Versions are kept per stripe of
+ * item ids, so writes to other items rarely discard a load.
+ */
+@Component
+public class ItemViewCache {
+    public static final String NAME = "item-views";
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final Cache<Long, CachedItemView> views;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         @Value("${shareit.item.view-cache.max-size:10000}") long maxSize) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilNextBooking())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, NAME);
+    }
+
+    public CachedItemView get(long itemId) {
+        return views.getIfPresent(itemId);
+    }
+
+    /**
+     * Returns the token to pass to {@link #put} once the view of the item has been loaded.
+     */
+    public long version(long itemId) {
+        return versions.get(stripe(itemId));
+    }
+
+    public void put(long version, long itemId, CachedItemView view) {
+        views.asMap().compute(itemId, (id, cached) -> versions.get(stripe(id)) == version ? view : cached);
+    }
+
+    public void invalidate(long itemId) {
+        views.asMap().compute(itemId, (id, cached) -> {
+            versions.incrementAndGet(stripe(id));
+            return null;
+        });
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        views.invalidateAll();
+    }
+
+    public long size() {
+        views.cleanUp();
+        return views.estimatedSize();
+    }
+
+    private static int stripe(long itemId) {
+        return Long.hashCode(itemId) & (VERSION_STRIPES - 1);
+    }
+
+    private static final class UntilNextBooking implements Expiry<Long, CachedItemView> {
+        @Override
+        public long expireAfterCreate(Long itemId, CachedItemView view, long currentTime) {
+            if (view.getExpiresAt() == null) {
+                return Long.MAX_VALUE;
+            }
+
+            return Math.max(0, Duration.between(LocalDateTime.now(), view.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, CachedItemView view, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, CachedItemView view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
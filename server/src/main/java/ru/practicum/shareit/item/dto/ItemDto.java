@@ -13,7 +13,7 @@ import java.util.Objects;
 @Getter
 @RequiredArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ItemDto {
     private long id;
     private String name;
@@ -0,0 +1,307 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram index over the name and description of available items.
+ * Queries shorter than a trigram are answered by scanning the indexed documents.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_SIZE = 3;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<Long, IndexedItem> documents = new TreeMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Built before the application takes requests. Items are loaded under the write lock, so an item indexed
+     * meanwhile is applied after the load instead of being wiped by it.
+     */
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            List<Item> items = itemRepository.findAllAvailable();
+            documents.clear();
+            postings.clear();
+            items.forEach(this::addDocument);
+            log.info("Item search index built: {} items, {} trigrams", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        long offset = pageable == null || pageable.isUnpaged() ? 0 : pageable.getOffset();
+        int limit = pageable == null || pageable.isUnpaged() ? Integer.MAX_VALUE : pageable.getPageSize();
+        List<Item> result = new ArrayList<>();
+        long[] skipped = {0};
+
+        lock.readLock().lock();
+        try {
+            forEachMatch(normalize(text), document -> {
+                if (skipped[0] < offset) {
+                    skipped[0]++;
+                    return true;
+                }
+
+                result.add(document.toItem());
+
+                return result.size() < limit;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public long count(String text) {
+        long[] count = {0};
+
+        lock.readLock().lock();
+        try {
+            forEachMatch(normalize(text), document -> {
+                count[0]++;
+                return true;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return count[0];
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(item.getId());
+            addDocument(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeByOwner(long ownerId) {
+        lock.writeLock().lock();
+        try {
+            documents.values()
+                    .stream()
+                    .filter(document -> document.ownerId == ownerId)
+                    .map(document -> document.id)
+                    .collect(Collectors.toList())
+                    .forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void forEachMatch(String query, Predicate<IndexedItem> action) {
+        if (query.length() < GRAM_SIZE) {
+            for (IndexedItem document : documents.values()) {
+                if (document.matches(query) && !action.test(document)) {
+                    return;
+                }
+            }
+
+            return;
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return;
+            }
+
+            lists.add(list);
+        }
+
+        lists.sort(Comparator.comparingInt(Postings::size));
+        Postings smallest = lists.get(0);
+
+        for (int i = 0; i < smallest.size(); i++) {
+            long itemId = smallest.get(i);
+
+            if (containsAll(lists, itemId)) {
+                IndexedItem document = documents.get(itemId);
+
+                if (document.matches(query) && !action.test(document)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean containsAll(List<Postings> lists, long itemId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(itemId)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void addDocument(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        IndexedItem document = new IndexedItem(item);
+        documents.put(document.id, document);
+
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(document.id);
+        }
+    }
+
+    private void removeDocument(long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+
+        for (String gram : document.grams()) {
+            Postings list = postings.get(gram);
+            list.remove(itemId);
+
+            if (list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+
+        return grams;
+    }
+
+    private static final class IndexedItem {
+        private final long id;
+        private final long ownerId;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final String normalizedName;
+        private final String normalizedDescription;
+
+        private IndexedItem(Item item) {
+            id = item.getId();
+            ownerId = item.getOwner() == null ? 0 : item.getOwner().getId();
+            name = item.getName();
+            description = item.getDescription();
+            requestId = item.getRequestId();
+            normalizedName = normalize(name);
+            normalizedDescription = normalize(description);
+        }
+
+        private boolean matches(String query) {
+            return normalizedName.contains(query) || normalizedDescription.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(normalizedName);
+            grams.addAll(InMemoryItemSearchEngine.grams(normalizedDescription));
+
+            return grams;
+        }
+
+        private Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(true)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+
+    /**
+     * Sorted array of item ids. Ids are generated in ascending order, so adds are appends in the common case.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private long get(int index) {
+            return ids[index];
+        }
+
+        private boolean contains(long itemId) {
+            return Arrays.binarySearch(ids, 0, size, itemId) >= 0;
+        }
+
+        private void add(long itemId) {
+            int index = Arrays.binarySearch(ids, 0, size, itemId);
+            if (index >= 0) {
+                return;
+            }
+
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = itemId;
+            size++;
+        }
+
+        private void remove(long itemId) {
+            int index = Arrays.binarySearch(ids, 0, size, itemId);
+            if (index < 0) {
+                return;
+            }
+
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.findAllByText(text, pageable);
+    }
+
+    @Override
+    public long count(String text) {
+        return itemRepository.countAllByText(text);
+    }
+
+    @Override
+    public void index(Item item) {
+        // Searches read the item table directly, there is nothing to keep in sync.
+    }
+
+    @Override
+    public void remove(long itemId) {
+    }
+
+    @Override
+    public void removeByOwner(long ownerId) {
+    }
+}
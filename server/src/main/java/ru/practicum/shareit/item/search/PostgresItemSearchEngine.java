@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Substring search served by the pg_trgm GIN indexes from schema-postgresql.sql, ranked by word similarity.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.findAllByTextRanked(text, pageable);
+    }
+
+    @Override
+    public long count(String text) {
+        return itemRepository.countAllByTextRanked(text);
+    }
+
+    @Override
+    public void index(Item item) {
+        // The trigram indexes are maintained by PostgreSQL.
+    }
+
+    @Override
+    public void remove(long itemId) {
+    }
+
+    @Override
+    public void removeByOwner(long ownerId) {
+    }
+}
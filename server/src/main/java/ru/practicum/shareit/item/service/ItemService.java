@@ -1,16 +1,22 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.availability.TimeWindow;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto getById(long itemId, long userId);
 
-    List<ItemDto> getByOwner(long ownerId);
+    List<ItemDto> getByOwner(long ownerId, Integer from, Integer size);
 
-    List<ItemDto> search(String query);
+    List<ItemDto> search(String query, Integer from, Integer size);
+
+    long searchCount(String query);
+
+    List<TimeWindow> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     ItemDto add(ItemDto itemDto, long ownerId);
 
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.BookingMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.availability.TimeWindow;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.CommentMapper;
@@ -14,89 +20,176 @@ import ru.practicum.shareit.error.model.BadRequestException;
 import ru.practicum.shareit.error.model.DataNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.cache.CachedItemView;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewMapper;
+import ru.practicum.shareit.item.view.ItemViews;
+import ru.practicum.shareit.item.view.ItemsChangedEvent;
+import ru.practicum.shareit.loader.DataLoaderRegistry;
+import ru.practicum.shareit.pagination.PaginationService;
+import ru.practicum.shareit.transaction.AfterCommit;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.time.LocalDateTime;
+import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Period DEFAULT_AVAILABILITY_PERIOD = Period.ofDays(30);
+    private static final String VIEW_LOADER = "item.views";
+
     private final UserServiceImpl userService;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
-    private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
+    private final PaginationService paginationService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final AvailabilityIndex availabilityIndex;
+    private final ItemLocks itemLocks;
+    private final ItemViewCache itemViewCache;
+    private final ItemViews itemViews;
+    private final ItemViewMapper itemViewMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataLoaderRegistry dataLoaderRegistry;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemDto getById(long itemId, long userId) {
-        Item item = findById(itemId);
-        setBookings(item, userId);
-        setComments(item);
+        CachedItemView cached = itemViewCache.get(itemId);
+        if (cached != null) {
+            return cached.viewFor(userId);
+        }
 
-        return itemMapper.toDto(item);
+        long version = itemViewCache.version(itemId);
+        ItemView view = dataLoaderRegistry.<Long, ItemView>getLoader(VIEW_LOADER, itemViews::findAll).load(itemId);
+        if (view == null) {
+            throw new DataNotFoundException("Item not found");
+        }
+        if (view.getNextStart() != null && !LocalDateTime.now().isBefore(view.getNextStart())) {
+            // the sweep has not rolled the next booking into last yet
+            view = itemViews.project(List.of(itemId))
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> new DataNotFoundException("Item not found"));
+        }
+        ItemDto itemDto = itemViewMapper.toDto(view, userId);
+
+        CachedItemView ownerView = new CachedItemView(view.getOwnerId(), itemDto, view.getNextStart());
+        if (view.getOwnerId() == userId && ownerView.isFresh(LocalDateTime.now())) {
+            itemViewCache.put(version, itemId, ownerView);
+        }
+
+        return itemDto;
     }
 
     @Override
-    public List<ItemDto> getByOwner(long ownerId) {
-        return itemRepository.findAllByOrderById()
+    public List<ItemDto> getByOwner(long ownerId, Integer from, Integer size) {
+        Pageable pageable = paginationService.getPageable(from, size);
+
+        return itemViews.findByOwner(ownerId, pageable)
                 .stream()
-                .filter(item -> isOwner(item, ownerId))
-                .map(item -> setBookings(item, ownerId))
-                .map(this::setComments)
-                .map(itemMapper::toDto)
+                .map(view -> itemViewMapper.toDto(view, ownerId))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemDto> search(String query) {
-        if (query == null) {
-            throw new BadRequestException("Invalid search text");
-        }
+    public List<ItemDto> search(String query, Integer from, Integer size) {
+        checkSearchQuery(query);
 
         if (query.isBlank()) {
             return new ArrayList<>();
         }
 
-        return itemRepository.findAllByText(query)
+        Pageable pageable = paginationService.getPageable(from, size);
+
+        return itemSearchEngine.search(query, pageable)
                 .stream()
                 .map(itemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    public long searchCount(String query) {
+        checkSearchQuery(query);
+
+        if (query.isBlank()) {
+            return 0;
+        }
+
+        return itemSearchEngine.count(query);
+    }
+
+    @Override
+    public List<TimeWindow> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        findById(itemId);
+
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_AVAILABILITY_PERIOD) : to;
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("Date to must be after date from");
+        }
+
+        return availabilityIndex.getFreeWindows(itemId, start, end);
+    }
+
+    @Override
+    @Transactional
     public ItemDto add(ItemDto itemDto, long ownerId) {
         Item item = prepareDao(itemDto);
-        item.setOwner(userService.findById(ownerId));
+        item.setOwner(userService.getReference(ownerId));
+        Item savedItem = itemRepository.save(item);
+        itemViews.projectNew(savedItem);
+        AfterCommit.run(() -> itemSearchEngine.index(savedItem));
 
-        return prepareDto(itemRepository.save(item));
+        return prepareDto(savedItem);
     }
 
     @Override
+    @Transactional
     public ItemDto update(long itemId, ItemDto itemDto, long ownerId) {
+        itemLocks.lockAll(List.of(itemId));
         checkOwnerPermission(itemId, ownerId);
-        partialUpdate(itemId, itemDto);
+        Item updatedItem = partialUpdate(itemId, itemDto);
+        AfterCommit.run(() -> {
+            itemSearchEngine.index(updatedItem);
+            itemViewCache.invalidate(itemId);
+        });
+        eventPublisher.publishEvent(ItemsChangedEvent.of(itemId));
 
         return prepareDto(itemRepository.getById(itemId));
     }
 
     @Override
+    @Transactional
     public void delete(long itemId, long ownerId) {
+        itemLocks.lockAll(List.of(itemId));
         Item item = findById(itemId);
         checkOwnerPermission(itemId, ownerId);
         itemRepository.delete(item);
+        AfterCommit.run(() -> {
+            itemSearchEngine.remove(itemId);
+            availabilityIndex.removeItem(itemId);
+            itemViewCache.invalidate(itemId);
+        });
     }
 
     @Override
+    @Transactional
     public CommentDto commentSave(long itemId, long userId, CommentDto commentDto) {
+        itemLocks.lockAll(List.of(itemId));
         Optional<Item> item = itemRepository.findById(itemId);
         User user = userService.findById(userId);
         List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStatusAndEndBeforeOrderByStartDesc(
@@ -121,14 +214,24 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
 
-        return commentMapper.toDto(commentRepository.save(comment));
+        Comment savedComment = commentRepository.save(comment);
+        AfterCommit.run(() -> itemViewCache.invalidate(itemId));
+        eventPublisher.publishEvent(ItemsChangedEvent.of(itemId));
+
+        return commentMapper.toDto(savedComment);
     }
 
-    private void partialUpdate(long itemId, ItemDto itemDto) {
+    private void checkSearchQuery(String query) {
+        if (query == null) {
+            throw new BadRequestException("Invalid search text");
+        }
+    }
+
+    private Item partialUpdate(long itemId, ItemDto itemDto) {
         Item updatedItem = findById(itemId);
         itemMapper.updateItem(itemDto, updatedItem);
 
-        itemRepository.save(updatedItem);
+        return itemRepository.save(updatedItem);
     }
 
     private void checkOwnerPermission(long itemId, long ownerId) {
@@ -148,10 +251,6 @@ public class ItemServiceImpl implements ItemService {
         return item.get();
     }
 
-    private boolean isOwner(Item item, long ownerId) {
-        return item.getOwner().getId() == ownerId;
-    }
-
     private Item prepareDao(ItemDto itemDto) {
         return itemMapper.fromDto(itemDto);
     }
@@ -159,36 +258,4 @@ public class ItemServiceImpl implements ItemService {
     private ItemDto prepareDto(Item item) {
         return itemMapper.toDto(item);
     }
-
-    private Item setBookings(Item item, long userId) {
-        if (item.getOwner().getId() == userId) {
-            item.setNextBooking(bookingMapper.toShortBookingDto(getNextBooking(item)));
-            item.setLastBooking(bookingMapper.toShortBookingDto(getLastBooking(item)));
-        }
-
-        return item;
-    }
-
-    private Item setComments(Item item) {
-        List<CommentDto> commentsDto = commentRepository.findAllByItemId(item.getId())
-                .stream()
-                .map(commentMapper::toDto)
-                .collect(Collectors.toList());
-
-        item.setComments(commentsDto);
-
-        return item;
-    }
-
-    private Booking getNextBooking(Item item) {
-        Optional<Booking> nextBooking = bookingRepository.findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAsc(item.getId(), BookingStatus.REJECTED, LocalDateTime.now());
-
-        return nextBooking.orElse(null);
-    }
-
-    private Booking getLastBooking(Item item) {
-        Optional<Booking> lastBooking = bookingRepository.findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDesc(item.getId(), BookingStatus.REJECTED, LocalDateTime.now());
-
-        return lastBooking.orElse(null);
-    }
 }
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.view.ItemsChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Keeps {@link ItemBookingSummary} rows in step with booking writes. A missing row means "not computed yet"
+ * and is filled in when the item is next projected; rows whose next booking has started are rolled forward by a
+ * sweep, or by a projection that gets to them first. Every change of a row happens under the item's admission
+ * lock.
+ * <p>
+ * Changes made by booking writes and by the sweep are announced with {@link ItemsChangedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaries {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemLocks itemLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public Map<Long, ItemBookingSummary> findAll(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            summaries.put(summary.getItemId(), summary);
+        }
+
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null || summary.isStale(now)) {
+                summaries.put(itemId, refresh(itemId, now));
+            }
+        }
+
+        return summaries;
+    }
+
+    public void onBooked(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        long itemId = booking.getItem().getId();
+        itemLocks.lockAll(List.of(itemId));
+        Optional<ItemBookingSummary> summary = summaryRepository.findById(itemId);
+        if (summary.isEmpty() || summary.get().isStale(now)) {
+            refresh(itemId, now);
+        } else if (summary.get().offer(booking, now)) {
+            summaryRepository.save(summary.get());
+        } else {
+            return;
+        }
+        eventPublisher.publishEvent(ItemsChangedEvent.of(itemId));
+    }
+
+    public void onRejected(Booking booking) {
+        long itemId = booking.getItem().getId();
+        itemLocks.lockAll(List.of(itemId));
+        Optional<ItemBookingSummary> summary = summaryRepository.findById(itemId);
+        if (summary.isPresent() && summary.get().references(booking.getId())) {
+            refresh(itemId, LocalDateTime.now());
+            eventPublisher.publishEvent(ItemsChangedEvent.of(itemId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.booking-summary.sweep-delay:60000}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long itemId : summaryRepository.findAllItemIdsByNextStartNotAfter(now)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemLocks.lockAll(List.of(itemId));
+                refresh(itemId, now);
+                eventPublisher.publishEvent(ItemsChangedEvent.of(itemId));
+            });
+        }
+    }
+
+    ItemBookingSummary refresh(long itemId, LocalDateTime now) {
+        Lock lock = itemLocks.get(itemId);
+        lock.lock();
+        try {
+            List<Long> itemIds = List.of(itemId);
+            ItemBookingSummary summary = new ItemBookingSummary(itemId);
+            summary.setLast(first(bookingRepository.findLastByItemIdIn(itemIds, BookingStatus.REJECTED, now)));
+            summary.setNext(first(bookingRepository.findNextByItemIdIn(itemIds, BookingStatus.REJECTED, now)));
+
+            return summaryRepository.save(summary);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Booking first(List<Booking> bookings) {
+        return bookings.stream()
+                .min(Comparator.comparingLong(Booking::getId))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next non-rejected booking of an item as of the last write or sweep, so owner views need not look them up.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+
+    private Long lastBookingId;
+    private Long lastBookerId;
+    private LocalDateTime lastStart;
+
+    private Long nextBookingId;
+    private Long nextBookerId;
+    private LocalDateTime nextStart;
+
+    public ItemBookingSummary(long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * The next booking has started by {@code now}, so both pointers may have moved.
+     */
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !now.isBefore(nextStart);
+    }
+
+    public boolean references(long bookingId) {
+        return Long.valueOf(bookingId).equals(lastBookingId) || Long.valueOf(bookingId).equals(nextBookingId);
+    }
+
+    /**
+     * Takes a new non-rejected booking into account, returning whether either pointer changed.
+     * Ties on start go to the smaller id, as with the repository lookups.
+     */
+    public boolean offer(Booking booking, LocalDateTime now) {
+        if (booking.getStart().isBefore(now) && isLater(booking, lastStart, lastBookingId)) {
+            setLast(booking);
+            return true;
+        }
+
+        if (booking.getStart().isAfter(now) && isEarlier(booking, nextStart, nextBookingId)) {
+            setNext(booking);
+            return true;
+        }
+
+        return false;
+    }
+
+    public void setLast(Booking booking) {
+        lastBookingId = booking == null ? null : booking.getId();
+        lastBookerId = booking == null ? null : booking.getBooker().getId();
+        lastStart = booking == null ? null : booking.getStart();
+    }
+
+    public void setNext(Booking booking) {
+        nextBookingId = booking == null ? null : booking.getId();
+        nextBookerId = booking == null ? null : booking.getBooker().getId();
+        nextStart = booking == null ? null : booking.getStart();
+    }
+
+    private static boolean isLater(Booking booking, LocalDateTime start, Long id) {
+        return start == null
+                || booking.getStart().isAfter(start)
+                || booking.getStart().isEqual(start) && booking.getId() < id;
+    }
+
+    private static boolean isEarlier(Booking booking, LocalDateTime start, Long id) {
+        return start == null
+                || booking.getStart().isBefore(start)
+                || booking.getStart().isEqual(start) && booking.getId() < id;
+    }
+}
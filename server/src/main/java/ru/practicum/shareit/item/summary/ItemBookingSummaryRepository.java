@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("select s.itemId " +
+            "from ItemBookingSummary s " +
+            "where s.nextStart <= ?1")
+    List<Long> findAllItemIdsByNextStartNotAfter(LocalDateTime now);
+}
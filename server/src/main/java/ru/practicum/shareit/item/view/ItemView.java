@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Read model row with everything GET /items renders for one item; comments are stored as a JSON array.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "item_view")
+public class ItemView {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+
+    private long ownerId;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+
+    private Long lastBookingId;
+    private Long lastBookerId;
+    private Long nextBookingId;
+    private Long nextBookerId;
+    private LocalDateTime nextStart;
+
+    private String comments;
+}
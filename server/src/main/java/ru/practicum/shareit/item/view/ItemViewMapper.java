@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.view;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ItemViewMapper {
+    private static final TypeReference<List<CommentDto>> COMMENTS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public ItemView toView(Item item, ItemBookingSummary summary, List<CommentDto> comments) {
+        ItemView view = new ItemView();
+        view.setItemId(item.getId());
+        view.setOwnerId(item.getOwner().getId());
+        view.setName(item.getName());
+        view.setDescription(item.getDescription());
+        view.setAvailable(item.getAvailable());
+        view.setRequestId(item.getRequestId());
+        view.setComments(writeComments(comments));
+
+        if (summary != null) {
+            view.setLastBookingId(summary.getLastBookingId());
+            view.setLastBookerId(summary.getLastBookerId());
+            view.setNextBookingId(summary.getNextBookingId());
+            view.setNextBookerId(summary.getNextBookerId());
+            view.setNextStart(summary.getNextStart());
+        }
+
+        return view;
+    }
+
+    public ItemDto toDto(ItemView view, long userId) {
+        ItemDto.ItemDtoBuilder itemDto = ItemDto.builder()
+                .id(view.getItemId())
+                .name(view.getName())
+                .description(view.getDescription())
+                .available(view.getAvailable())
+                .requestId(view.getRequestId())
+                .comments(readComments(view.getComments()));
+
+        if (view.getOwnerId() == userId) {
+            itemDto.lastBooking(shortBooking(view.getLastBookingId(), view.getLastBookerId()))
+                    .nextBooking(shortBooking(view.getNextBookingId(), view.getNextBookerId()));
+        }
+
+        return itemDto.build();
+    }
+
+    private String writeComments(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Comments can't be written to item view", e);
+        }
+    }
+
+    private List<CommentDto> readComments(String comments) {
+        try {
+            return objectMapper.readValue(comments, COMMENTS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Comments can't be read from item view", e);
+        }
+    }
+
+    private static ShortBookingDto shortBooking(Long bookingId, Long bookerId) {
+        if (bookingId == null) {
+            return null;
+        }
+
+        return ShortBookingDto.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Projects the {@link ItemView} of every item that has none, such as items created before the read model existed,
+ * once the context is built and before the server accepts requests. Started with
+ * {@code --shareit.item-view.rebuild=true} it regenerates every view instead. Item ids are split into chunks of
+ * {@code chunk-size} which are projected on {@code threads} workers, one transaction and one batch of queries per chunk.
+ */
+@Slf4j
+@Component
+public class ItemViewRebuilder implements SmartInitializingSingleton {
+    private final ItemViews itemViews;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+    private final boolean rebuildAll;
+
+    public ItemViewRebuilder(ItemViews itemViews,
+                             ItemRepository itemRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${shareit.item-view.rebuild-chunk-size:500}") int chunkSize,
+                             @Value("${shareit.item-view.rebuild-threads:4}") int threads,
+                             @Value("${shareit.item-view.rebuild:false}") boolean rebuildAll) {
+        this.itemViews = itemViews;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.rebuildAll = rebuildAll;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            if (rebuildAll) {
+                rebuild();
+            } else {
+                projectMissing();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Item view projection interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Item view projection failed", e.getCause());
+        }
+    }
+
+    public int rebuild() throws InterruptedException, ExecutionException {
+        long maxId = itemRepository.findMaxId();
+        List<Callable<Integer>> chunks = new ArrayList<>();
+        for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+            long toId = fromId + chunkSize - 1;
+            long chunkFrom = fromId;
+            chunks.add(project(() -> itemRepository.findAllIdsBetween(chunkFrom, toId)));
+        }
+
+        int projected = run(chunks);
+        log.info("Item views rebuilt for {} items in {} chunks", projected, chunks.size());
+        return projected;
+    }
+
+    public int projectMissing() throws InterruptedException, ExecutionException {
+        List<Long> missingIds = itemRepository.findAllIdsWithoutView();
+        List<Callable<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < missingIds.size(); from += chunkSize) {
+            List<Long> chunk = missingIds.subList(from, Math.min(from + chunkSize, missingIds.size()));
+            chunks.add(project(() -> chunk));
+        }
+
+        int projected = run(chunks);
+        if (projected > 0) {
+            log.info("Item views projected for {} items without one", projected);
+        }
+        return projected;
+    }
+
+    private Callable<Integer> project(Supplier<List<Long>> itemIds) {
+        return () -> transactionTemplate.execute(status -> itemViews.projectAll(itemIds.get()).size());
+    }
+
+    private int run(List<Callable<Integer>> chunks) throws InterruptedException, ExecutionException {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int projected = 0;
+            for (Future<Integer> chunk : executor.invokeAll(chunks)) {
+                projected += chunk.get();
+            }
+
+            return projected;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
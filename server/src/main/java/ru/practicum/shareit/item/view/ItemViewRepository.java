@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.view;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemViewRepository extends JpaRepository<ItemView, Long> {
+    List<ItemView> findAllByOwnerIdOrderByItemId(long ownerId, Pageable pageable);
+
+    @Query("select v.itemId " +
+            "from ItemView v " +
+            "where v.lastBookerId = ?1 or v.nextBookerId = ?1")
+    List<Long> findAllItemIdsByBookerId(long bookerId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from ItemView v " +
+            "where v.itemId in ?1")
+    void deleteAllByItemIdIn(Collection<Long> itemIds);
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link ItemView} read model. Writers publish {@link ItemsChangedEvent} and the views of those items
+ * are projected again from the base tables just before the writer's transaction commits, under the item locks held
+ * until it completes, so two projections of one item never interleave.
+ * <p>
+ * Reads only ever load views. A view whose next booking has started is projected again by the booking summary
+ * sweep, so lists show that booking as next for at most the sweep delay, while a single item read projects it
+ * right away. Items without a view, such as those created
+ * before the read model, are projected by {@link ItemViewRebuilder} on startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemViews {
+    private final ItemViewRepository viewRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final CommentMapper commentMapper;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final ItemLocks itemLocks;
+    private final ItemViewMapper itemViewMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public Map<Long, ItemView> findAll(Collection<Long> itemIds) {
+        return viewRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemView::getItemId, Function.identity()));
+    }
+
+    public List<ItemView> findByOwner(long ownerId, Pageable pageable) {
+        return viewRepository.findAllByOwnerIdOrderByItemId(ownerId, pageable);
+    }
+
+    /**
+     * Items whose views show the user as a booker or a comment author.
+     */
+    public Set<Long> findItemIdsShowing(long userId) {
+        Set<Long> itemIds = new TreeSet<>(viewRepository.findAllItemIdsByBookerId(userId));
+        itemIds.addAll(commentRepository.findAllItemIdsByAuthorId(userId));
+
+        return itemIds;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        project(event.getItemIds());
+    }
+
+    /**
+     * Projects the items in the current transaction, or in a new one if none is active.
+     */
+    public List<ItemView> project(Collection<Long> itemIds) {
+        return transactionTemplate.execute(status -> {
+            itemLocks.lockAll(itemIds);
+            return projectAll(itemIds);
+        });
+    }
+
+    /**
+     * Stores the view of an item created in the current transaction. Nobody else sees the item before the commit,
+     * so no lock is needed, and there are no bookings or comments to look up yet.
+     */
+    public ItemView projectNew(Item item) {
+        return viewRepository.save(itemViewMapper.toView(item, null, List.of()));
+    }
+
+    /**
+     * Projects a batch of items with one query per base table in the caller's transaction. Takes no item locks,
+     * so a write racing with it projects its item once more afterwards.
+     */
+    public List<ItemView> projectAll(Collection<Long> itemIds) {
+        List<ItemView> views = render(itemIds);
+
+        List<Long> goneIds = new ArrayList<>(itemIds);
+        goneIds.removeAll(views.stream()
+                .map(ItemView::getItemId)
+                .collect(Collectors.toList()));
+        if (!goneIds.isEmpty()) {
+            viewRepository.deleteAllByItemIdIn(goneIds);
+        }
+
+        return viewRepository.saveAll(views);
+    }
+
+    private List<ItemView> render(Collection<Long> itemIds) {
+        List<Item> items = itemRepository.findAllById(itemIds);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> presentIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaries.findAll(presentIds);
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(presentIds)
+                .stream()
+                .sorted(Comparator.comparingLong(Comment::getId))
+                .collect(Collectors.groupingBy(
+                        comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> itemViewMapper.toView(
+                        item,
+                        summaries.get(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+}
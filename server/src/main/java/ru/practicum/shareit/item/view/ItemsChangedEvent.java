@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published after a write that changes what the views of these items show.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class ItemsChangedEvent {
+    private final Collection<Long> itemIds;
+
+    public static ItemsChangedEvent of(long itemId) {
+        return new ItemsChangedEvent(List.of(itemId));
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.loader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Collects keys and resolves all pending ones with a single batch call on the first load.
+ * Results, including misses, are cached for the lifetime of the loader.
+ */
+public class DataLoader<K, V> {
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final Map<K, V> values = new HashMap<>();
+    private final Set<K> loaded = new HashSet<>();
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    public DataLoader(Function<List<K>, Map<K, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    public DataLoader<K, V> register(Collection<K> keys) {
+        for (K key : keys) {
+            if (!loaded.contains(key)) {
+                pending.add(key);
+            }
+        }
+
+        return this;
+    }
+
+    public V load(K key) {
+        return load(key, null);
+    }
+
+    public V load(K key, V defaultValue) {
+        if (!loaded.contains(key)) {
+            pending.add(key);
+            dispatch();
+        }
+
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<K> keys = new ArrayList<>(pending);
+        pending.clear();
+        values.putAll(batchFunction.apply(keys));
+        loaded.addAll(keys);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.loader;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Holds the data loaders of the current HTTP request, so repeated lookups within a request share one batch and cache.
+ * Outside a request, as in projections and sweeps, every call gets a loader of its own.
+ */
+@Component
+public class DataLoaderRegistry {
+    private static final String LOADERS = DataLoaderRegistry.class.getName() + ".loaders";
+
+    @SuppressWarnings("unchecked")
+    public <K, V> DataLoader<K, V> getLoader(String name, Function<List<K>, Map<K, V>> batchFunction) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return new DataLoader<>(batchFunction);
+        }
+
+        Map<String, DataLoader<?, ?>> loaders =
+                (Map<String, DataLoader<?, ?>>) request.getAttribute(LOADERS, RequestAttributes.SCOPE_REQUEST);
+        if (loaders == null) {
+            loaders = new HashMap<>();
+            request.setAttribute(LOADERS, loaders, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return (DataLoader<K, V>) loaders.computeIfAbsent(name, key -> new DataLoader<>(batchFunction));
+    }
+}
@@ -16,8 +16,24 @@ public class PaginationService {
             throw new BadRequestException("Invalid value of from or size param");
         }
 
+        if (from % size != 0) {
+            return new OffsetPageRequest(from, size);
+        }
+
         int pageNumber = from / size;
 
         return PageRequest.of(pageNumber, size);
     }
+
+    public int getLimit(Integer size) {
+        if (size == null) {
+            return Integer.MAX_VALUE;
+        }
+
+        if (size <= 0) {
+            throw new BadRequestException("Invalid value of size param");
+        }
+
+        return size;
+    }
 }
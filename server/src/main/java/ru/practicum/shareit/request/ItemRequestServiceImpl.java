@@ -3,10 +3,14 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.error.model.DataNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.loader.DataLoader;
+import ru.practicum.shareit.loader.DataLoaderRegistry;
 import ru.practicum.shareit.pagination.PaginationService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -16,12 +20,16 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final String ITEM_LOADER = "request.items";
+
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemRepository itemRepository;
@@ -29,8 +37,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserService userService;
     private final PaginationService paginationService;
+    private final DataLoaderRegistry dataLoaderRegistry;
 
     @Override
+    @Transactional
     public ItemRequestDto add(ItemRequestDto itemRequestDto, long requestorId) {
         User requestor = userService.findById(requestorId);
 
@@ -49,8 +59,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(requestorId, pageable)
                 .stream()
                 .map(this::prepareDto)
-                .map(this::setItems)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::setItems));
     }
 
     @Override
@@ -61,8 +70,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDesc(userId, pageable)
                 .stream()
                 .map(this::prepareDto)
-                .map(this::setItems)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::setItems));
     }
 
     @Override
@@ -75,20 +83,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
 
         ItemRequestDto itemRequestDto = prepareDto(itemRequest.get());
-        setItems(itemRequestDto);
+        setItems(List.of(itemRequestDto));
 
         return itemRequestDto;
     }
 
-    private ItemRequestDto setItems(ItemRequestDto itemRequestDto) {
-        List<ItemDto> itemsIds = itemRepository.findAllByRequestId(itemRequestDto.getId())
-                .stream()
-                .map(itemMapper::toDto)
-                .collect(Collectors.toList());
+    private List<ItemRequestDto> setItems(List<ItemRequestDto> itemRequestDtos) {
+        DataLoader<Long, List<ItemDto>> items = dataLoaderRegistry.getLoader(ITEM_LOADER, this::findItems);
+        items.register(itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList()));
 
-        itemRequestDto.setItems(itemsIds);
+        itemRequestDtos.forEach(itemRequestDto ->
+                itemRequestDto.setItems(items.load(itemRequestDto.getId(), List.of())));
 
-        return itemRequestDto;
+        return itemRequestDtos;
+    }
+
+    private Map<Long, List<ItemDto>> findItems(List<Long> requestIds) {
+        return itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(itemMapper::toDto, Collectors.toList())));
     }
 
     private ItemRequestDto prepareDto(ItemRequest itemRequest) {
@@ -2,18 +2,19 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    public List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long requestorId);
-
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     public List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long requestorId, Pageable pageable);
 
-    public List<ItemRequest> findAllByRequestorIdIsNotOrderByCreatedDesc(long requestorId);
-
     public List<ItemRequest> findAllByRequestorIdIsNotOrderByCreatedDesc(long requestorId, Pageable pageable);
 }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies a write to node-local state, such as the availability index, the search index or a cache, only once the
+ * database has it: a rolled back transaction leaves that state untouched, and a reader cannot load the old row
+ * again between an eviction and the commit.
+ */
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action after the current transaction commits and not at all if it rolls back; without a
+     * transaction the action runs right away.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
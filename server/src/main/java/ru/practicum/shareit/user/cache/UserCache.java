@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded W-TinyLFU cache of users in front of {@link UserRepository#findById}. Hit and miss counts
+ * are published as {@code cache.gets{cache=users}}.
+ * <p>
+ * Cached users are detached snapshots: callers get their own copy and must not cascade persist to it.
+ * Writes go through the repository and are followed by {@link #invalidate}; the TTL bounds staleness
+ * caused by writes on other nodes.
+ */
+@Component
+public class UserCache {
+    public static final String NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> users;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${shareit.user.cache.max-size:10000}") long maxSize,
+                     @Value("${shareit.user.cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, NAME);
+    }
+
+    public Optional<User> findById(long userId) {
+        return Optional.ofNullable(users.get(userId, id -> userRepository.findById(id).map(UserCache::copy).orElse(null)))
+                .map(UserCache::copy);
+    }
+
+    public void invalidate(long userId) {
+        users.invalidate(userId);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+}
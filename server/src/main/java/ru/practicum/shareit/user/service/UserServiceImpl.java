@@ -1,22 +1,48 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.error.model.DataNotFoundException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.view.ItemViews;
+import ru.practicum.shareit.item.view.ItemsChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.transaction.AfterCommit;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final UserMapper userMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final AvailabilityIndex availabilityIndex;
+    private final ItemLocks itemLocks;
+    private final ItemViewCache itemViewCache;
+    private final ItemViews itemViews;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     public UserDto getById(long userId) {
@@ -32,6 +58,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto add(UserDto userDto) {
         User user = prepareDao(userDto);
 
@@ -39,21 +66,32 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto update(long userId, UserDto userDto) {
-        partialUpdate(userId, userDto);
-
-        return prepareDto(findById(userId));
+        return prepareDto(partialUpdate(userId, userDto));
     }
 
     @Override
+    @Transactional
     public void delete(long userId) {
         User user = findById(userId);
+        Set<Long> shownOn = itemViews.findItemIdsShowing(userId);
+        itemLocks.lockAll(shownOn);
+        List<BookingInterval> blocking = availabilityIndex.findAllOfUser(userId);
         userRepository.delete(user);
+        AfterCommit.run(() -> {
+            availabilityIndex.removeAll(blocking);
+            userCache.invalidate(userId);
+            itemSearchEngine.removeByOwner(userId);
+            itemViewCache.invalidateAll();
+            evictCascadedEntities();
+        });
+        eventPublisher.publishEvent(new ItemsChangedEvent(shownOn));
     }
 
     @Override
     public User findById(long userId) {
-        Optional<User> user = userRepository.findById(userId);
+        Optional<User> user = userCache.findById(userId);
         if (user.isEmpty()) {
             throw new DataNotFoundException("User not found");
         }
@@ -61,10 +99,43 @@ public class UserServiceImpl implements UserService {
         return user.get();
     }
 
-    private void partialUpdate(long userId, UserDto userDto) {
-        User updatedUser = findById(userId);
+    /**
+     * Checks the user exists and returns a reference that can be attached to new entities.
+     */
+    public User getReference(long userId) {
+        findById(userId);
+
+        return userRepository.getReferenceById(userId);
+    }
+
+    private User partialUpdate(long userId, UserDto userDto) {
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty()) {
+            throw new DataNotFoundException("User not found");
+        }
+
+        Set<Long> shownOn = itemViews.findItemIdsShowing(userId);
+        itemLocks.lockAll(shownOn);
+        User updatedUser = user.get();
         userMapper.updateUser(userDto, updatedUser);
-        userRepository.save(updatedUser);
+        User savedUser = userRepository.save(updatedUser);
+        AfterCommit.run(() -> {
+            userCache.invalidate(userId);
+            itemViewCache.invalidateAll();
+        });
+        eventPublisher.publishEvent(new ItemsChangedEvent(shownOn));
+
+        return savedUser;
+    }
+
+    /**
+     * The database deletes the user's items and requests by cascade, behind the back of the second-level cache.
+     */
+    private void evictCascadedEntities() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(ItemRequest.class);
+        cache.evictQueryRegions();
     }
 
     private boolean isEmailExist(String email) {
@@ -0,0 +1,11 @@
+CREATE INDEX IF NOT EXISTS booking_booker_start_idx ON booking (booker_id, start_time DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS booking_item_status_start_idx ON booking (item_id, status, start_time);
+
+CREATE INDEX IF NOT EXISTS item_owner_idx ON item (owner_id, item_id);
+
+CREATE INDEX IF NOT EXISTS item_request_idx ON item (request_id);
+
+CREATE INDEX IF NOT EXISTS comment_item_idx ON comment (item_id);
+
+CREATE INDEX IF NOT EXISTS request_requestor_created_idx ON request (requestor_id, created DESC);
@@ -0,0 +1,5 @@
+-- owner, item and last/next booking lookups read each item's bookings already in (start, id) order;
+-- the status column in front of start_time could only serve equality filters no query uses any more
+CREATE INDEX IF NOT EXISTS booking_item_start_idx ON booking (item_id, start_time DESC, booking_id DESC);
+
+DROP INDEX IF EXISTS booking_item_status_start_idx;
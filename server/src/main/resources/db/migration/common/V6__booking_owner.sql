@@ -0,0 +1,16 @@
+-- owner-side booking lists filter on the item's owner without joining item;
+-- the composite key follows an item to its new owner and rejects a mismatching owner_id
+ALTER TABLE booking ADD COLUMN owner_id INTEGER;
+
+UPDATE booking b
+SET owner_id = (SELECT i.owner_id FROM item i WHERE i.item_id = b.item_id);
+
+ALTER TABLE booking ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE item ADD CONSTRAINT item_owner_uk UNIQUE (item_id, owner_id);
+
+ALTER TABLE booking
+    ADD CONSTRAINT booking_item_owner_fk FOREIGN KEY (item_id, owner_id)
+        REFERENCES item (item_id, owner_id) ON UPDATE CASCADE ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS booking_owner_start_idx ON booking (owner_id, start_time DESC, booking_id DESC);
@@ -0,0 +1,17 @@
+-- last and next booking of each item, maintained on booking writes; a deleted booking drops the row,
+-- which the application recomputes on the next read
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         INTEGER PRIMARY KEY,
+    last_booking_id INTEGER,
+    last_booker_id  INTEGER,
+    last_start      TIMESTAMP,
+    next_booking_id INTEGER,
+    next_booker_id  INTEGER,
+    next_start      TIMESTAMP,
+    FOREIGN KEY (item_id) REFERENCES item (item_id) ON DELETE CASCADE,
+    FOREIGN KEY (last_booking_id) REFERENCES booking (booking_id) ON DELETE CASCADE,
+    FOREIGN KEY (next_booking_id) REFERENCES booking (booking_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_next_start_idx ON item_booking_summary (next_start);
@@ -0,0 +1,20 @@
+-- rendered item views read by GET /items, projected again by the application after item, booking,
+-- comment and user writes; comments hold a JSON array ordered by comment id
+CREATE TABLE IF NOT EXISTS item_view
+(
+    item_id         INTEGER PRIMARY KEY,
+    owner_id        INTEGER      NOT NULL,
+    name            VARCHAR(50)  NOT NULL,
+    description     VARCHAR(255) NOT NULL,
+    available       BOOLEAN      NOT NULL,
+    request_id      INTEGER,
+    last_booking_id INTEGER,
+    last_booker_id  INTEGER,
+    next_booking_id INTEGER,
+    next_booker_id  INTEGER,
+    next_start      TIMESTAMP,
+    comments        VARCHAR      NOT NULL,
+    FOREIGN KEY (item_id) REFERENCES item (item_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS item_view_owner_idx ON item_view (owner_id, item_id);
@@ -0,0 +1,6 @@
+-- a user's rename or removal projects again every item whose view shows the user as a booker or a comment author
+CREATE INDEX IF NOT EXISTS item_view_last_booker_idx ON item_view (last_booker_id);
+
+CREATE INDEX IF NOT EXISTS item_view_next_booker_idx ON item_view (next_booker_id);
+
+CREATE INDEX IF NOT EXISTS comment_author_idx ON comment (author_id);
@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS item_name_trgm_idx ON item USING gin (upper(name) gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS item_description_trgm_idx ON item USING gin (upper(description) gin_trgm_ops) WHERE available;
@@ -0,0 +1,134 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.view.ItemViews;
+import ru.practicum.shareit.testUtils.SqlCapture;
+import ru.practicum.shareit.user.cache.UserCache;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.testUtils.SqlCapture")
+@AutoConfigureMockMvc
+@Transactional
+class EndpointQueryCountTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    private static final long OWNER = 601;
+    private static final long BOOKER = 602;
+    private static final long ITEM = 601;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ItemViewCache itemViewCache;
+
+    @Autowired
+    private ItemViews itemViews;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'owner', 'owner601@shareit.ru')", OWNER);
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'booker', 'booker602@shareit.ru')", BOOKER);
+        for (long itemId = ITEM; itemId < ITEM + 3; itemId++) {
+            jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                    + "values (?, 'Drill', 'Cordless', true, ?)", itemId, OWNER);
+            jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                    + "values (?, ?, ?, ?, ?, ?, 'APPROVED')", itemId * 10, now.minusDays(2), now.minusDays(1), itemId, OWNER, BOOKER);
+            jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                    + "values (?, ?, ?, ?, ?, ?, 'WAITING')", itemId * 10 + 1, now.plusDays(1), now.plusDays(2), itemId, OWNER, BOOKER);
+            jdbcTemplate.update("insert into comment (comment_id, text, item_id, author_id, created) "
+                    + "values (?, 'Fine', ?, ?, ?)", itemId, itemId, BOOKER, now);
+        }
+
+        // existence checks are served by the user cache on the hot paths
+        userCache.findById(OWNER);
+        userCache.findById(BOOKER);
+        itemViews.projectAll(List.of(ITEM, ITEM + 1, ITEM + 2));
+        entityManager.flush();
+        itemViewCache.invalidateAll();
+    }
+
+    @Test
+    void getBooking_shouldLoadBookingItemAndBookerInOneStatement() throws Exception {
+        assertEquals(1, statements(get("/bookings/{id}", ITEM * 10).header(HEADER_USER_ID, OWNER)));
+    }
+
+    @Test
+    void getBookingsOfBooker_shouldUseOneStatementPerPage() throws Exception {
+        assertEquals(1, statements(get("/bookings").header(HEADER_USER_ID, BOOKER)));
+        assertEquals(1, statements(get("/bookings?from=0&size=2").header(HEADER_USER_ID, BOOKER)));
+        assertEquals(1, statements(get("/bookings?state=FUTURE&from=1&size=2").header(HEADER_USER_ID, BOOKER)));
+    }
+
+    @Test
+    void getBookingsOfOwner_shouldUseOneStatementPerPage() throws Exception {
+        assertEquals(1, statements(get("/bookings/owner").header(HEADER_USER_ID, OWNER)));
+        assertEquals(1, statements(get("/bookings/owner?state=PAST&from=0&size=2").header(HEADER_USER_ID, OWNER)));
+    }
+
+    @Test
+    void getItem_shouldReadOnlyItemView() throws Exception {
+        assertEquals(1, statements(get("/items/{id}", ITEM).header(HEADER_USER_ID, BOOKER)));
+        assertEquals(1, statements(get("/items/{id}", ITEM).header(HEADER_USER_ID, OWNER)));
+        assertEquals(0, statements(get("/items/{id}", ITEM).header(HEADER_USER_ID, OWNER)));
+    }
+
+    @Test
+    void getItem_shouldProjectItemViewWhoseNextBookingHasStarted() throws Exception {
+        jdbcTemplate.update("update item_view set next_start = ? where item_id in (?, ?, ?)",
+                LocalDateTime.now().minusMinutes(1), ITEM, ITEM + 1, ITEM + 2);
+
+        statements(get("/items/{id}", ITEM).header(HEADER_USER_ID, OWNER));
+        entityManager.flush();
+        LocalDateTime nextStart = jdbcTemplate.queryForObject("select next_start from item_view where item_id = ?",
+                LocalDateTime.class, ITEM);
+
+        assertTrue(nextStart.isAfter(LocalDateTime.now()));
+        assertEquals(0, statements(get("/items/{id}", ITEM).header(HEADER_USER_ID, OWNER)));
+        assertEquals(1, statements(get("/items?from=0&size=3").header(HEADER_USER_ID, OWNER)));
+    }
+
+    @Test
+    void getItemsOfOwner_shouldNotDependOnPageSize() throws Exception {
+        assertEquals(1, statements(get("/items?from=0&size=1").header(HEADER_USER_ID, OWNER)));
+        assertEquals(1, statements(get("/items?from=0&size=3").header(HEADER_USER_ID, OWNER)));
+    }
+
+    private int statements(MockHttpServletRequestBuilder request) throws Exception {
+        entityManager.clear();
+        SqlCapture.clear();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").exists());
+
+        return SqlCapture.statements().size();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.cache.UserCache;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: the user cache drops the renamed user once the update commits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EtagTest {
+    private static final long USER = 901;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'user', 'user901@shareit.ru')", USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users where user_id = ?", USER);
+        userCache.invalidate(USER);
+    }
+
+    @Test
+    void get_shouldAnswerMatchingIfNoneMatchWithoutBody() throws Exception {
+        String eTag = eTag();
+
+        mockMvc.perform(get("/users/{id}", USER).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void get_shouldAnswerChangedResourceWithNewEtag() throws Exception {
+        String eTag = eTag();
+        mockMvc.perform(patch("/users/{id}", USER)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/users/{id}", USER).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(eTag, changed);
+    }
+
+    private String eTag() throws Exception {
+        return mockMvc.perform(get("/users/{id}", USER))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
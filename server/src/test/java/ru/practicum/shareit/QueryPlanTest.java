@@ -0,0 +1,262 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSpecifications;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.view.ItemViewRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.testUtils.EmbeddedPostgresTest;
+import ru.practicum.shareit.testUtils.SqlCapture;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explains the SQL Hibernate generates for the hot repository methods against a few thousand users' worth of rows
+ * with fresh statistics, and checks the planner picks an index for it.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.testUtils.SqlCapture",
+        // the summaries below are all due by the wall clock; keep the sweep off them while the context is cached
+        "shareit.item.booking-summary.sweep-delay=86400000"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final Sort SEARCH_ORDER = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+    private static final String NOW = "2022-09-01 12:00:00";
+    private static final int USERS = 2_000;
+    private static final int REQUESTS = 5_000;
+    private static final int ITEMS = 20_000;
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final int COMMENTS = 40_000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemViewRepository itemViewRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresTest.postgresProperties(registry, "query_plan");
+    }
+
+    @BeforeAll
+    void insertRows() {
+        jdbcTemplate.update("insert into users (user_id, name, email) "
+                + "select g, 'user ' || g, 'user' || g || '@shareit.ru' "
+                + "from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into request (request_id, description, created, requestor_id) "
+                + "select g, 'request ' || g, timestamp '" + NOW + "' - g * interval '1 hour', 1 + g % ? "
+                + "from generate_series(1, ?) g", USERS, REQUESTS);
+        jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id, request_id) "
+                + "select g, 'item ' || g, 'description ' || g, g % 10 <> 0, 1 + g % ?, "
+                + "case when g % 4 = 0 then 1 + g % ? end "
+                + "from generate_series(1, ?) g", USERS, REQUESTS, ITEMS);
+        // one booking of every item a day, from two days ago to two days ahead
+        jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "select 1 + g, "
+                + "timestamp '" + NOW + "' + (g / ? * 24 - 48) * interval '1 hour', "
+                + "timestamp '" + NOW + "' + (g / ? * 24 - 46) * interval '1 hour', "
+                + "1 + g % ?, 1 + (1 + g % ?) % ?, 1 + g * 7 % ?, "
+                + "(array['WAITING', 'APPROVED', 'REJECTED'])[1 + g % 3] "
+                + "from generate_series(0, ? - 1) g",
+                ITEMS, ITEMS, ITEMS, ITEMS, USERS, USERS, ITEMS * BOOKINGS_PER_ITEM);
+        jdbcTemplate.update("insert into comment (comment_id, text, item_id, author_id, created) "
+                + "select g, 'comment ' || g, 1 + g % ?, 1 + g * 3 % ?, timestamp '" + NOW + "' "
+                + "from generate_series(1, ?) g", ITEMS, USERS, COMMENTS);
+        jdbcTemplate.update("insert into item_view (item_id, owner_id, name, description, available, request_id, "
+                + "last_booker_id, next_booker_id, next_start, comments) "
+                + "select i.item_id, i.owner_id, i.name, i.description, i.available, i.request_id, "
+                + "1 + i.item_id * 5 % ?, 1 + i.item_id * 11 % ?, timestamp '" + NOW + "' + interval '1 day', '[]' "
+                + "from item i", USERS, USERS);
+        // one item in a hundred has a next booking the sweep has not rolled forward yet
+        jdbcTemplate.update("insert into item_booking_summary (item_id, next_start) "
+                + "select i.item_id, timestamp '" + NOW + "' + (i.item_id % 100 - 1) * interval '1 hour' "
+                + "from item i");
+        jdbcTemplate.execute("analyze");
+    }
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.clear();
+    }
+
+    @Test
+    void migrations_shouldBeApplied() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+
+        assertThat(jdbcTemplate.queryForObject("select current_database()", String.class)).isEqualTo("query_plan");
+        assertThat(versions).containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9");
+    }
+
+    @Test
+    void findSummariesByBooker_shouldUseBookerIndex() {
+        bookingRepository.findSummaries(BookingSpecifications.bookerId(1L), SEARCH_ORDER, 0, 20);
+
+        assertThat(plan("1", "20")).contains("booking_booker_start_idx");
+    }
+
+    @Test
+    void findSummariesByBookerAndStatus_shouldUseBookerIndex() {
+        bookingRepository.findSummaries(Specification.where(BookingSpecifications.bookerId(1L))
+                .and(BookingSpecifications.status(BookingStatus.WAITING)), SEARCH_ORDER, 0, 20);
+
+        assertThat(plan("1", "WAITING", "20")).contains("booking_booker_start_idx");
+    }
+
+    @Test
+    void findSummariesByItemOwner_shouldUseOwnerIndex() {
+        bookingRepository.findSummaries(Specification.where(BookingSpecifications.itemOwnerId(1L))
+                .and(BookingSpecifications.state(BookingState.FUTURE, LocalDateTime.now())), SEARCH_ORDER, 0, 20);
+
+        assertThat(plan("1", NOW, "20")).contains("booking_owner_start_idx").doesNotContain("item_owner_idx");
+    }
+
+    @Test
+    void findSummariesByItem_shouldUseItemStartIndex() {
+        bookingRepository.findSummaries(Specification.where(BookingSpecifications.bookerId(1L))
+                .and(BookingSpecifications.itemId(2L)), SEARCH_ORDER, 20, 20);
+
+        assertThat(plan("1", "2", "20", "20")).contains("booking_item_start_idx");
+    }
+
+    @Test
+    void findLastByItemIdIn_shouldUseItemStartIndex() {
+        bookingRepository.findLastByItemIdIn(List.of(1L), BookingStatus.REJECTED, LocalDateTime.now());
+
+        assertThat(plan("1", "REJECTED", NOW, "REJECTED", NOW)).contains("booking_item_start_idx");
+    }
+
+    @Test
+    void findNextByItemIdIn_shouldUseItemStartIndex() {
+        bookingRepository.findNextByItemIdIn(List.of(1L), BookingStatus.REJECTED, LocalDateTime.now());
+
+        assertThat(plan("1", "REJECTED", NOW, "REJECTED", NOW)).contains("booking_item_start_idx");
+    }
+
+    @Test
+    void findViewsByOwnerId_shouldUseViewOwnerIndex() {
+        itemViewRepository.findAllByOwnerIdOrderByItemId(1L, PageRequest.of(0, 20));
+
+        assertThat(plan("1", "20")).contains("item_view_owner_idx");
+    }
+
+    @Test
+    void findItemIdsByBookerId_shouldUseViewBookerIndexes() {
+        itemViewRepository.findAllItemIdsByBookerId(1L);
+
+        assertThat(plan("1", "1")).contains("item_view_last_booker_idx", "item_view_next_booker_idx");
+    }
+
+    @Test
+    void findItemIdsByCommentAuthorId_shouldUseCommentAuthorIndex() {
+        commentRepository.findAllItemIdsByAuthorId(1L);
+
+        assertThat(plan("1")).contains("comment_author_idx");
+    }
+
+    @Test
+    void findCommentsByItemIdIn_shouldUseCommentIndex() {
+        commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+
+        assertThat(plan("1", "2")).contains("comment_item_idx");
+    }
+
+    @Test
+    void findItemsByRequestIdIn_shouldUseRequestIndex() {
+        itemRepository.findAllByRequestIdIn(List.of(1L, 2L));
+
+        assertThat(plan("1", "2")).contains("item_request_idx");
+    }
+
+    @Test
+    void findRequestsByRequestorId_shouldUseRequestorIndex() {
+        itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(1L, PageRequest.of(0, 20));
+
+        assertThat(plan("1", "20")).contains("request_requestor_created_idx");
+    }
+
+    @Test
+    void findSummariesToRollForward_shouldUseNextStartIndex() {
+        itemBookingSummaryRepository.findAllItemIdsByNextStartNotAfter(LocalDateTime.now());
+
+        assertThat(plan(NOW)).contains("item_booking_summary_next_start_idx");
+    }
+
+    private String plan(String... parameters) {
+        String sql = SqlCapture.first();
+        StringBuilder statement = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                statement.append('$').append(++parameter);
+            } else {
+                statement.append(c);
+            }
+        }
+
+        String arguments = String.join(", ", quote(parameters));
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement jdbc = connection.createStatement()) {
+                jdbc.execute("prepare hot_query as " + statement);
+                try {
+                    ResultSet resultSet = jdbc.executeQuery("explain execute hot_query(" + arguments + ")");
+                    StringBuilder result = new StringBuilder();
+                    while (resultSet.next()) {
+                        result.append(resultSet.getString(1)).append('\n');
+                    }
+
+                    return result.toString();
+                } finally {
+                    jdbc.execute("deallocate hot_query");
+                }
+            }
+        });
+    }
+
+    private static String[] quote(String... parameters) {
+        String[] quoted = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            quoted[i] = "'" + parameters[i] + "'";
+        }
+        return quoted;
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.error.model.DataNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.jpa.cache.enabled=true")
+class SecondLevelCacheTest {
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = User.builder().name("owner").email("l2-owner-" + System.nanoTime() + "@shareit.ru").build();
+        item = Item.builder().name("Drill").description("Cordless").available(true).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(owner);
+            item.setOwner(owner);
+            entityManager.persist(item);
+        });
+        // entities are put into their regions on the first load after insert
+        itemRepository.findById(item.getId());
+        statistics.clear();
+    }
+
+    @Test
+    void findById_shouldBeServedFromEntityRegion() {
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+
+        assertEquals(2, statistics.getDomainDataRegionStatistics("item").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "item")
+                .tag("result", "hit")
+                .functionCounter()
+                .count() >= 2);
+    }
+
+    @Test
+    void save_shouldRefreshCachedEntity() {
+        Item cached = itemRepository.findById(item.getId()).orElseThrow();
+        cached.setName("Hammer");
+        itemRepository.save(cached);
+
+        assertEquals("Hammer", itemRepository.findById(item.getId()).orElseThrow().getName());
+
+        User user = userRepository.findById(owner.getId()).orElseThrow();
+        user.setName("renamed");
+        userRepository.save(user);
+
+        assertEquals("renamed", userRepository.findById(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void delete_shouldEvictCachedEntity() {
+        itemRepository.findById(item.getId());
+        itemRepository.deleteById(item.getId());
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void requestorRequests_shouldBeServedFromQueryCacheUntilRequestTableChanges() {
+        PageRequest page = PageRequest.of(0, 10);
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(request("Drill")));
+        itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(owner.getId(), page);
+        statistics.clear();
+
+        itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(owner.getId(), page);
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(request("Saw")));
+
+        assertEquals(2, itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(owner.getId(), page).size());
+    }
+
+    @Test
+    void deleteOwner_shouldEvictItemsDeletedByCascade() {
+        User booker = User.builder().name("booker").email("l2-booker-" + System.nanoTime() + "@shareit.ru").build();
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(booker));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        itemRepository.findById(item.getId());
+
+        userService.delete(owner.getId());
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build()))
+                .isInstanceOf(DataNotFoundException.class);
+    }
+
+    private ItemRequest request(String description) {
+        return ItemRequest.builder()
+                .description(description)
+                .created(LocalDateTime.now())
+                .requestor(entityManager.find(User.class, owner.getId()))
+                .build();
+    }
+}
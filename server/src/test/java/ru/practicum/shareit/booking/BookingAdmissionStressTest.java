@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.error.model.ConflictException;
+import ru.practicum.shareit.testUtils.EmbeddedPostgresTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Books concurrently against embedded PostgreSQL and logs the admission throughput.
+ */
+@Slf4j
+@SpringBootTest
+class BookingAdmissionStressTest extends EmbeddedPostgresTest {
+    private static final int THREADS = 16;
+    private static final int ITEMS = 64;
+    private static final int WINDOWS = 50;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (user_id, name, email) values (1, 'owner', 'owner@shareit.ru')");
+        for (long booker = 2; booker < 2 + THREADS; booker++) {
+            jdbcTemplate.update("insert into users (user_id, name, email) values (?, ?, ?)",
+                    booker, "booker " + booker, "booker" + booker + "@shareit.ru");
+        }
+        for (long item = 1; item <= ITEMS; item++) {
+            jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                    + "values (?, 'Drill', 'Cordless', true, 1)", item);
+        }
+        availabilityIndex.rebuild();
+    }
+
+    @Test
+    void create_shouldAdmitOneBookingPerWindowOfHotItem() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            long bookerId = 2 + thread;
+            List<Integer> windows = shuffledWindows(thread);
+            tasks.add(() -> {
+                int admitted = 0;
+                for (int window : windows) {
+                    try {
+                        bookingService.create(bookerId, booking(1L, window));
+                        admitted++;
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return admitted;
+            });
+        }
+
+        int admitted = run("one item", tasks);
+
+        assertEquals(WINDOWS, admitted);
+        assertEquals(WINDOWS * (THREADS - 1), conflicts.get());
+        assertEquals(0, overlappingPairs());
+    }
+
+    @Test
+    void create_shouldAdmitAllBookingsOfDistinctItems() throws Exception {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            long bookerId = 2 + thread;
+            int offset = thread;
+            tasks.add(() -> {
+                int admitted = 0;
+                for (int window = 0; window < WINDOWS; window++) {
+                    long itemId = 1 + (offset + (long) window * THREADS) % ITEMS;
+                    bookingService.create(bookerId, booking(itemId, window * THREADS + offset));
+                    admitted++;
+                }
+                return admitted;
+            });
+        }
+
+        assertEquals(WINDOWS * THREADS, run("many items", tasks));
+        assertEquals(0, overlappingPairs());
+    }
+
+    @Test
+    void exclusionConstraint_shouldRejectOverlapBypassingService() {
+        jdbcTemplate.update("insert into booking (start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (?, ?, 1, 1, 2, 'APPROVED')", BASE, BASE.plusHours(2));
+        jdbcTemplate.update("insert into booking (start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (?, ?, 1, 1, 3, 'REJECTED')", BASE.plusHours(1), BASE.plusHours(3));
+
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into booking (start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (?, ?, 1, 1, 3, 'WAITING')", BASE.plusHours(1), BASE.plusHours(3)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private int run(String scenario, List<Callable<Integer>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long started = System.nanoTime();
+            int admitted = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                admitted += future.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            int attempts = tasks.size() * WINDOWS;
+
+            log.info("Booking admission, {}: {} attempts, {} admitted in {} s, {} attempts/s",
+                    scenario, attempts, admitted, String.format("%.2f", seconds), Math.round(attempts / seconds));
+
+            return admitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Integer overlappingPairs() {
+        return jdbcTemplate.queryForObject("select count(*) from booking b join booking o "
+                + "on o.item_id = b.item_id and o.booking_id < b.booking_id "
+                + "and o.start_time < b.end_time and b.start_time < o.end_time", Integer.class);
+    }
+
+    private static List<Integer> shuffledWindows(int seed) {
+        List<Integer> windows = new ArrayList<>();
+        for (int window = 0; window < WINDOWS; window++) {
+            windows.add(window);
+        }
+        Collections.shuffle(windows, new Random(seed));
+
+        return windows;
+    }
+
+    private static BookingDto booking(long itemId, int window) {
+        return BookingDto.builder()
+                .itemId(itemId)
+                .start(BASE.plusHours(window))
+                .end(BASE.plusHours(window + 1))
+                .build();
+    }
+}
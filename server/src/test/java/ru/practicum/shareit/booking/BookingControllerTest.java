@@ -13,12 +13,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.error.ErrorHandler;
 import ru.practicum.shareit.error.model.BadRequestException;
 import ru.practicum.shareit.error.model.DataNotFoundException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.testUtils.Helper;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +30,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,8 +48,8 @@ class BookingControllerTest {
     private long userId;
     private User user;
     private BookingDto bookingDto;
-    private List<BookingDto> emptyList;
-    private List<BookingDto> list;
+    private List<BookingSummaryDto> emptyList;
+    private List<BookingSummaryDto> list;
 
     @BeforeEach
     void setMockMvc() {
@@ -57,16 +63,16 @@ class BookingControllerTest {
         bookingDto = Helper.createBookingDto(0L, 0L, user);
         emptyList = new ArrayList<>();
         list = List.of(
-                Helper.createBookingDto(1L, 0L, user),
-                Helper.createBookingDto(2L, 0L, user),
-                Helper.createBookingDto(3L, 0L, user)
+                Helper.createBookingSummaryDto(1L, 0L, userId),
+                Helper.createBookingSummaryDto(2L, 0L, userId),
+                Helper.createBookingSummaryDto(3L, 0L, userId)
         );
     }
 
     @SneakyThrows
     @Test
     void getAllByBooker_shouldReturnEmptyList() {
-        when(bookingService.getAllByBooker(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(emptyList);
+        when(bookingService.getAllByBooker(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenReturn(emptyList);
 
         mockMvc.perform(get("/bookings")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -81,7 +87,7 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void getAllByBooker_shouldReturnListOfBookingDto() {
-        when(bookingService.getAllByBooker(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(list);
+        when(bookingService.getAllByBooker(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenReturn(list);
 
         mockMvc.perform(get("/bookings")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -90,13 +96,17 @@ class BookingControllerTest {
                         .param("size", "10")
                 )
                 .andExpect(status().isOk())
-                .andExpect(content().json(objectMapper.writeValueAsString(list)));
+                .andExpect(content().json(objectMapper.writeValueAsString(list)))
+                .andExpect(jsonPath("$[0].item.id").value(0))
+                .andExpect(jsonPath("$[0].item.name").value("item"))
+                .andExpect(jsonPath("$[0].booker.id").value(userId))
+                .andExpect(jsonPath("$[0].item.comments").doesNotExist());
     }
 
     @SneakyThrows
     @Test
     void getAllByBooker_shouldReturnBadRequestException() {
-        when(bookingService.getAllByBooker(anyLong(), anyString(), anyInt(), anyInt())).thenThrow(new BadRequestException("Unknown state: UNSUPPORTED_STATUS"));
+        when(bookingService.getAllByBooker(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenThrow(new BadRequestException("Unknown state: UNSUPPORTED_STATUS"));
 
         mockMvc.perform(get("/bookings")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -110,7 +120,7 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void getAllByBooker_shouldReturnDataNotFoundException() {
-        when(bookingService.getAllByBooker(anyLong(), anyString(), anyInt(), anyInt())).thenThrow(new DataNotFoundException("User not found"));
+        when(bookingService.getAllByBooker(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenThrow(new DataNotFoundException("User not found"));
 
         mockMvc.perform(get("/bookings")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -125,7 +135,7 @@ class BookingControllerTest {
     @Test
     void getAllByOwner_shouldReturnListOfBookingDto() {
 
-        when(bookingService.getAllByOwner(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(list);
+        when(bookingService.getAllByOwner(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenReturn(list);
 
         mockMvc.perform(get("/bookings/owner")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -140,7 +150,7 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void getAllByOwner_shouldReturnEmptyList() {
-        when(bookingService.getAllByOwner(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(emptyList);
+        when(bookingService.getAllByOwner(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenReturn(emptyList);
 
         mockMvc.perform(get("/bookings/owner")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -155,7 +165,7 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void getAllByOwner_shouldReturnBadRequestException() {
-        when(bookingService.getAllByOwner(anyLong(), anyString(), anyInt(), anyInt())).thenThrow(new BadRequestException("Unknown state: UNSUPPORTED_STATUS"));
+        when(bookingService.getAllByOwner(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenThrow(new BadRequestException("Unknown state: UNSUPPORTED_STATUS"));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -169,7 +179,7 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void getAllByOwner_shouldReturnDataNotFoundException() {
-        when(bookingService.getAllByOwner(anyLong(), anyString(), anyInt(), anyInt())).thenThrow(new DataNotFoundException("User not found"));
+        when(bookingService.getAllByOwner(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenThrow(new DataNotFoundException("User not found"));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(Helper.HEADER_USER_ID, String.valueOf(userId))
@@ -230,4 +240,58 @@ class BookingControllerTest {
                 )
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllByBooker_shouldReturnNextCursorForFullPage() {
+        BookingSummaryDto last = list.get(list.size() - 1);
+        when(bookingService.getAllByBooker(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenReturn(list);
+
+        mockMvc.perform(get("/bookings")
+                        .header(Helper.HEADER_USER_ID, String.valueOf(userId))
+                        .param("from", "0")
+                        .param("size", String.valueOf(list.size()))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new PageCursor(last.getStart(), last.getId()).encode()));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllByOwner_shouldNotReturnNextCursorForLastPage() {
+        when(bookingService.getAllByOwner(anyLong(), any(BookingFilter.class), anyInt(), anyInt(), any())).thenReturn(list);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(Helper.HEADER_USER_ID, String.valueOf(userId))
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("cursor", "cursor")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllByOwner_shouldPassFilterParams() {
+        BookingFilter filter = BookingFilter.builder()
+                .state("CURRENT")
+                .itemId(7L)
+                .rangeStart(LocalDateTime.of(2022, 9, 1, 12, 0))
+                .rangeEnd(LocalDateTime.of(2022, 9, 2, 12, 0))
+                .build();
+        when(bookingService.getAllByOwner(userId, filter, 0, 10, null)).thenReturn(list);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(Helper.HEADER_USER_ID, String.valueOf(userId))
+                        .param("state", "CURRENT")
+                        .param("itemId", "7")
+                        .param("rangeStart", "2022-09-01T12:00:00")
+                        .param("rangeEnd", "2022-09-02T12:00:00")
+                        .param("from", "0")
+                        .param("size", "10")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(list)));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Migrates a database of its own that holds overlapping bookings accepted before the exclusion constraint.
+ */
+class BookingNoOverlapMigrationTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2022, 9, 1, 12, 0);
+
+    @Test
+    void migrate_shouldStopAndListOverlappingBookings() throws IOException {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            DataSource dataSource = postgres.getPostgresDatabase();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            flyway(dataSource, "3").migrate();
+            jdbcTemplate.update("insert into users (user_id, name, email) values (1, 'owner', 'owner@shareit.ru')");
+            jdbcTemplate.update("insert into users (user_id, name, email) values (2, 'booker', 'booker@shareit.ru')");
+            jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                    + "values (1, 'Drill', 'Cordless', true, 1)");
+            insertBooking(jdbcTemplate, 1, 10, 12, "APPROVED");
+            insertBooking(jdbcTemplate, 2, 11, 13, "WAITING");
+            insertBooking(jdbcTemplate, 3, 11, 13, "REJECTED");
+            insertBooking(jdbcTemplate, 4, 12, 14, "WAITING");
+
+            assertThatThrownBy(() -> flyway(dataSource, "4").migrate())
+                    .isInstanceOf(FlywayException.class)
+                    .hasMessageContaining("item 1: booking 1 overlaps booking 2")
+                    .hasMessageContaining("item 1: booking 2 overlaps booking 4")
+                    .hasMessageNotContaining("overlaps booking 3")
+                    .hasMessageNotContaining("booking 3 overlaps");
+            assertEquals(List.of("APPROVED", "WAITING", "REJECTED", "WAITING"), jdbcTemplate.queryForList(
+                    "select status from booking order by booking_id", String.class));
+        }
+    }
+
+    private static Flyway flyway(DataSource dataSource, String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target)
+                .load();
+    }
+
+    private static void insertBooking(JdbcTemplate jdbcTemplate, long id, int startHour, int endHour, String status) {
+        jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, booker_id, status) "
+                + "values (?, ?, ?, 1, 2, ?)", id, BASE.plusHours(startHour), BASE.plusHours(endHour), status);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.cache.CachedItemView;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.view.ItemViews;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Not transactional: the index and the cache only change once the booking commits.
+ */
+@SpringBootTest
+class BookingRollbackTest {
+    private static final long OWNER = 1001;
+    private static final long BOOKER = 1002;
+    private static final long ITEM = 1001;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(3).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemViews itemViews;
+
+    @Autowired
+    private ItemViewCache itemViewCache;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'owner', 'owner1001@shareit.ru')", OWNER);
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'booker', 'booker1002@shareit.ru')", BOOKER);
+        jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                + "values (?, 'Drill', 'Cordless', true, ?)", ITEM, OWNER);
+        itemViews.project(List.of(ITEM));
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityIndex.removeItem(ITEM);
+        itemViewCache.invalidate(ITEM);
+        jdbcTemplate.update("delete from users where user_id in (?, ?)", OWNER, BOOKER);
+    }
+
+    @Test
+    void create_shouldLeaveIndexAndCachedViewUnchangedWhenRolledBack() {
+        ItemDto view = itemService.getById(ITEM, OWNER);
+        CachedItemView cached = itemViewCache.get(ITEM);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.create(BOOKER, BookingDto.builder()
+                    .itemId(ITEM)
+                    .start(START)
+                    .end(START.plusHours(2))
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(availabilityIndex.isFree(ITEM, START, START.plusHours(2)));
+        assertSame(cached, itemViewCache.get(ITEM));
+        assertEquals(view, itemService.getById(ITEM, OWNER));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from booking where item_id = ?", Integer.class, ITEM));
+    }
+}
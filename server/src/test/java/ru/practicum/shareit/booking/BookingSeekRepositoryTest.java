@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class BookingSeekRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (101, 'owner', 'owner@shareit.ru')");
+        jdbcTemplate.update("insert into users (user_id, name, email) values (102, 'booker', 'booker@shareit.ru')");
+        jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                + "values (101, 'Drill', 'Cordless', true, 101)");
+        insertBooking(101, START.plusDays(3));
+        insertBooking(102, START.plusDays(2));
+        insertBooking(103, START.plusDays(2));
+        insertBooking(104, START.plusDays(1));
+        insertBooking(105, START);
+    }
+
+    @Test
+    void getAllByBooker_shouldWalkPagesByCursor() {
+        List<BookingSummaryDto> first = bookingService.getAllByBooker(102, BookingFilter.of("ALL"), 0, 2, null);
+        List<BookingSummaryDto> second = bookingService.getAllByBooker(102, BookingFilter.of("ALL"), 0, 2, cursorAfter(first));
+        List<BookingSummaryDto> third = bookingService.getAllByBooker(102, BookingFilter.of("FUTURE"), 0, 2, cursorAfter(second));
+
+        assertEquals(List.of(101L, 103L), ids(first));
+        assertEquals(List.of(102L, 104L), ids(second));
+        assertEquals(List.of(105L), ids(third));
+    }
+
+    @Test
+    void getAllByOwner_shouldKeepOffsetRemainder() {
+        assertEquals(List.of(105L), ids(bookingService.getAllByOwner(101, BookingFilter.of("ALL"), 4, 2, null)));
+        assertEquals(List.of(104L, 105L), ids(bookingService.getAllByOwner(101, BookingFilter.of("WAITING"), 3, 2, null)));
+    }
+
+    @Test
+    void getAllByOwner_shouldCombineItemAndRangeFilters() {
+        jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                + "values (102, 'Saw', 'Circular', true, 101)");
+        jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (106, ?, ?, 102, 101, 102, 'WAITING')", START.plusDays(2), START.plusDays(2).plusHours(1));
+        BookingFilter filter = BookingFilter.builder()
+                .state("WAITING")
+                .itemId(101L)
+                .rangeStart(START.plusMinutes(30))
+                .rangeEnd(START.plusDays(2).plusMinutes(30))
+                .build();
+
+        assertEquals(List.of(103L, 102L, 104L, 105L), ids(bookingService.getAllByOwner(101, filter, 0, 10, null)));
+        assertEquals(List.of(104L, 105L), ids(bookingService.getAllByOwner(101, filter, 2, 2, null)));
+        assertEquals(List.of(106L), ids(bookingService.getAllByOwner(101,
+                BookingFilter.builder().itemId(102L).build(), null, null, null)));
+    }
+
+    @Test
+    void getAllByOwner_shouldFollowItemToNewOwner() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (103, 'buyer', 'buyer@shareit.ru')");
+        jdbcTemplate.update("update item set owner_id = 103 where item_id = 101");
+
+        assertEquals(List.of(), ids(bookingService.getAllByOwner(101, BookingFilter.of("ALL"), 0, 10, null)));
+        assertEquals(List.of(101L, 103L, 102L, 104L, 105L),
+                ids(bookingService.getAllByOwner(103, BookingFilter.of("ALL"), 0, 10, null)));
+    }
+
+    private void insertBooking(long id, LocalDateTime start) {
+        jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (?, ?, ?, 101, 101, 102, 'WAITING')", id, start, start.plusHours(1));
+    }
+
+    private static String cursorAfter(List<BookingSummaryDto> page) {
+        BookingSummaryDto last = page.get(page.size() - 1);
+        return new PageCursor(last.getStart(), last.getId()).encode();
+    }
+
+    private static List<Long> ids(List<BookingSummaryDto> bookings) {
+        return bookings.stream()
+                .map(BookingSummaryDto::getId)
+                .collect(Collectors.toList());
+    }
+}
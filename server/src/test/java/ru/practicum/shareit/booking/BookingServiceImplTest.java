@@ -9,20 +9,31 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.error.model.BadRequestException;
+import ru.practicum.shareit.error.model.ConflictException;
 import ru.practicum.shareit.error.model.DataNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.PaginationService;
 import ru.practicum.shareit.testUtils.Helper;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +42,9 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,11 +56,23 @@ class BookingServiceImplTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private PaginationService paginationService;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Spy
+    private ItemLocks itemLocks = new ItemLocks(16);
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private ItemBookingSummaries itemBookingSummaries;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -99,8 +125,8 @@ class BookingServiceImplTest {
     @SneakyThrows
     @Test
     void create_shouldReturnDataNotFoundException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        when(userCache.findById(1L)).thenReturn(Optional.empty());
+        when(userCache.findById(2L)).thenReturn(Optional.of(user));
         when(itemRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> bookingService.create(1L, bookingDto))
@@ -122,7 +148,7 @@ class BookingServiceImplTest {
     void create_shouldReturnBadRequestException() {
         item.setAvailable(false);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         assertThatThrownBy(() -> bookingService.create(1L, bookingDto))
@@ -132,7 +158,7 @@ class BookingServiceImplTest {
     @SneakyThrows
     @Test
     void create_shouldReturnDataNotFoundException2() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
 
         assertThatThrownBy(() -> bookingService.create(1L, bookingDto))
                 .isInstanceOf(DataNotFoundException.class);
@@ -141,7 +167,7 @@ class BookingServiceImplTest {
     @SneakyThrows
     @Test
     void create_shouldReturnBadRequestException2() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         bookingDto.setStart(LocalDateTime.of(2022, 12, 12, 0, 0, 0));
@@ -156,11 +182,55 @@ class BookingServiceImplTest {
     void create_shouldReturnBookingDto() {
         booking.setStatus(BookingStatus.APPROVED);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(availabilityIndex.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArguments()[0]);
 
         assertEquals(bookingService.create(1L, bookingDto), bookingDto);
+        verify(availabilityIndex).add(any(Booking.class));
+        verify(itemViewCache).invalidate(itemId);
+        verify(bookingRepository).save(argThat(saved -> saved.getOwner() == item.getOwner()));
+        verify(itemBookingSummaries).onBooked(any(Booking.class));
+    }
+
+    @Test
+    void create_shouldReturnConflictExceptionForOverlappingBooking() {
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(availabilityIndex.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.create(1L, bookingDto))
+                .isInstanceOf(ConflictException.class);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void create_shouldAdmitBookingWhenDatabaseClearsIndexConflict() {
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(availabilityIndex.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(false);
+        when(availabilityIndex.recheck(itemId, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        bookingService.create(1L, bookingDto);
+
+        verify(bookingRepository).save(any(Booking.class));
+        verify(availabilityIndex).add(any(Booking.class));
+    }
+
+    @Test
+    void create_shouldReturnConflictExceptionForExclusionViolation() {
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(availabilityIndex.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+        when(bookingRepository.save(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("violates exclusion constraint \"booking_no_overlap\"")));
+
+        assertThatThrownBy(() -> bookingService.create(1L, bookingDto))
+                .isInstanceOf(ConflictException.class);
+        verify(availabilityIndex, never()).add(any(Booking.class));
+        verify(itemViewCache, never()).invalidate(anyLong());
     }
 
     @SneakyThrows
@@ -186,94 +256,133 @@ class BookingServiceImplTest {
         assertEquals(bookingService.update(bookingId, owner.getId(), true), bookingMapper.toDto(booking));
     }
 
+    @Test
+    void update_shouldAdmitApprovedRejectedBooking() {
+        booking.setItem(item);
+        booking.setStatus(BookingStatus.REJECTED);
+
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(availabilityIndex.isFree(itemId, booking.getStart(), booking.getEnd())).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.update(bookingId, owner.getId(), true))
+                .isInstanceOf(ConflictException.class);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void update_shouldReleaseRejectedBooking() {
+        booking.setItem(item);
+
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        assertEquals(BookingStatus.REJECTED, bookingService.update(bookingId, owner.getId(), false).getStatus());
+        verify(availabilityIndex).remove(booking);
+        verify(itemViewCache).invalidate(item.getId());
+        verify(itemBookingSummaries).onRejected(booking);
+    }
+
     @Test
     void getAllByBooker_shouldReturnDataNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userCache.findById(anyLong())).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> bookingService.getAllByBooker(1L, "ALL", 1, 10))
+        assertThatThrownBy(() -> bookingService.getAllByBooker(1L, BookingFilter.of("ALL"), 1, 10, null))
                 .isInstanceOf(DataNotFoundException.class);
     }
 
     @Test
     void getAllByBooker_shouldReturnBadRequestException() {
-        assertThatThrownBy(() -> bookingService.getAllByBooker(1L, "UNKOWN", 1, 10))
+        assertThatThrownBy(() -> bookingService.getAllByBooker(1L, BookingFilter.of("UNKOWN"), 1, 10, null))
                 .isInstanceOf(BadRequestException.class);
     }
 
-    @SneakyThrows
     @Test
     void getAllByBooker_shouldReturnEmptyList() {
         User user = Helper.createUser(1L);
-        List<BookingDto> emptyList = new ArrayList<>();
+        List<BookingSummaryDto> emptyList = new ArrayList<>();
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
         when(paginationService.getPageable(anyInt(), anyInt())).thenReturn(PageRequest.of(1, 10));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(
-                anyLong(), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                anyLong(), any(BookingStatus.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-
-        assertEquals(bookingService.getAllByBooker(1L, "ALL", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByBooker(1L, "PAST", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByBooker(1L, "FUTURE", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByBooker(1L, "CURRENT", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByBooker(1L, "WAITING", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByBooker(1L, "REJECTED", 1, 10), emptyList);
+        when(bookingRepository.findSummaries(any(), any(Sort.class), eq(10L), eq(10))).thenReturn(List.of());
+
+        for (String state : List.of("ALL", "PAST", "FUTURE", "CURRENT", "WAITING", "REJECTED")) {
+            assertEquals(bookingService.getAllByBooker(1L, BookingFilter.of(state), 1, 10, null), emptyList);
+        }
+        verify(bookingRepository, times(6)).findSummaries(any(), any(Sort.class), eq(10L), eq(10));
     }
 
     @Test
     void getAllByOwner_shouldReturnDataNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userCache.findById(anyLong())).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> bookingService.getAllByOwner(1L, "ALL", 1, 10))
+        assertThatThrownBy(() -> bookingService.getAllByOwner(1L, BookingFilter.of("ALL"), 1, 10, null))
                 .isInstanceOf(DataNotFoundException.class);
     }
 
     @Test
     void getAllByOwner_shouldReturnBadRequestException() {
-        assertThatThrownBy(() -> bookingService.getAllByOwner(1L, "UNKOWN", 1, 10))
+        assertThatThrownBy(() -> bookingService.getAllByOwner(1L, BookingFilter.of("UNKOWN"), 1, 10, null))
                 .isInstanceOf(BadRequestException.class);
     }
 
     @Test
     void getAllByOwner_shouldReturnEmptyList() {
         User user = Helper.createUser(1L);
-        List<BookingDto> emptyList = new ArrayList<>();
+        List<BookingSummaryDto> emptyList = new ArrayList<>();
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
         when(paginationService.getPageable(anyInt(), anyInt())).thenReturn(PageRequest.of(1, 10));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(
-                anyLong(), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
-                anyLong(), any(LocalDateTime.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                anyLong(), any(BookingStatus.class), any(PageRequest.class))
-        ).thenReturn(List.of());
-
-        assertEquals(bookingService.getAllByOwner(1L, "ALL", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByOwner(1L, "PAST", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByOwner(1L, "FUTURE", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByOwner(1L, "CURRENT", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByOwner(1L, "WAITING", 1, 10), emptyList);
-        assertEquals(bookingService.getAllByOwner(1L, "REJECTED", 1, 10), emptyList);
+        when(bookingRepository.findSummaries(any(), any(Sort.class), eq(10L), eq(10))).thenReturn(List.of());
+
+        for (String state : List.of("ALL", "PAST", "FUTURE", "CURRENT", "WAITING", "REJECTED")) {
+            assertEquals(bookingService.getAllByOwner(1L, BookingFilter.of(state), 1, 10, null), emptyList);
+        }
+        verify(bookingRepository, times(6)).findSummaries(any(), any(Sort.class), eq(10L), eq(10));
+    }
+
+    @Test
+    void getAllByBooker_shouldSeekFromCursor() {
+        BookingSummaryDto summary = Helper.createBookingSummaryDto(bookingId, itemId, userId);
+        PageCursor cursor = new PageCursor(booking.getStart(), 5L);
+
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(paginationService.getLimit(10)).thenReturn(10);
+        when(bookingRepository.findSummaries(any(), any(Sort.class), eq(0L), eq(10))).thenReturn(List.of(summary));
+
+        assertEquals(List.of(summary),
+                bookingService.getAllByBooker(userId, BookingFilter.of("ALL"), 0, 10, cursor.encode()));
+        verify(paginationService, never()).getPageable(anyInt(), anyInt());
+    }
+
+    @Test
+    void getAllByOwner_shouldSeekFirstPage() {
+        BookingSummaryDto summary = Helper.createBookingSummaryDto(bookingId, itemId, userId);
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(paginationService.getLimit(10)).thenReturn(10);
+        when(bookingRepository.findSummaries(any(), any(Sort.class), eq(0L), eq(10))).thenReturn(List.of(summary));
+
+        assertEquals(List.of(summary),
+                bookingService.getAllByOwner(ownerId, BookingFilter.of("FUTURE"), 0, 10, null));
+        verify(paginationService, never()).getPageable(anyInt(), anyInt());
+    }
+
+    @Test
+    void getAllByBooker_shouldReturnBadRequestExceptionForInvertedRange() {
+        BookingFilter filter = BookingFilter.builder()
+                .rangeStart(booking.getEnd())
+                .rangeEnd(booking.getStart())
+                .build();
+
+        assertThatThrownBy(() -> bookingService.getAllByBooker(userId, filter, 0, 10, null))
+                .isInstanceOf(BadRequestException.class);
+        verify(bookingRepository, never()).findSummaries(any(), any(Sort.class), anyLong(), anyInt());
+    }
+
+    @Test
+    void getAllByBooker_shouldReturnBadRequestExceptionForInvalidCursor() {
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> bookingService.getAllByBooker(userId, BookingFilter.of("ALL"), 0, 10, "not a cursor"))
+                .isInstanceOf(BadRequestException.class);
     }
-}
\ No newline at end of file
+}
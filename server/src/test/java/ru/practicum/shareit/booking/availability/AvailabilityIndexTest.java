@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.testUtils.Helper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Spy
+    private ItemLocks itemLocks = new ItemLocks(16);
+
+    @InjectMocks
+    private AvailabilityIndex availabilityIndex;
+
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        item = Helper.createItem(1L, Helper.createUser(1L));
+        booker = Helper.createUser(2L);
+        availabilityIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldIndexBlockingBookings() {
+        when(bookingRepository.findAllIntervals(eq(AvailabilityIndex.BLOCKING_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(1L, 1L, hour(10), hour(12))));
+
+        availabilityIndex.rebuild();
+
+        assertFalse(availabilityIndex.isFree(1L, hour(11), hour(13)));
+        assertTrue(availabilityIndex.isFree(1L, hour(12), hour(13)));
+        assertTrue(availabilityIndex.isFree(2L, hour(11), hour(13)));
+    }
+
+    @Test
+    void isFree_shouldAskDatabaseBeforeFirstBuild() {
+        AvailabilityIndex unbuilt = new AvailabilityIndex(bookingRepository, itemLocks);
+        when(bookingRepository.findAllIntervalsByItemId(eq(1L), eq(AvailabilityIndex.BLOCKING_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(1L, 1L, hour(10), hour(12))));
+
+        assertFalse(unbuilt.isFree(1L, hour(11), hour(13)));
+        assertEquals(List.of(new TimeWindow(hour(12), hour(14))), unbuilt.getFreeWindows(1L, hour(10), hour(14)));
+    }
+
+    @Test
+    void recheck_shouldDropBookingsGoneFromDatabase() {
+        availabilityIndex.add(booking(1L, hour(10), hour(12)));
+        availabilityIndex.add(booking(2L, hour(13), hour(14)));
+        when(bookingRepository.findAllIntervalsByItemId(eq(1L), eq(AvailabilityIndex.BLOCKING_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(2L, 1L, hour(13), hour(14))));
+
+        assertTrue(availabilityIndex.recheck(1L, hour(11), hour(13)));
+        assertTrue(availabilityIndex.isFree(1L, hour(10), hour(12)));
+        assertFalse(availabilityIndex.isFree(1L, hour(13), hour(14)));
+    }
+
+    @Test
+    void rebuild_shouldDropBookingsNoLongerBlocking() {
+        availabilityIndex.add(booking(1L, hour(10), hour(12)));
+
+        availabilityIndex.rebuild();
+
+        assertTrue(availabilityIndex.isFree(1L, hour(10), hour(12)));
+    }
+
+    @Test
+    void prune_shouldDropEndedBookingsWithoutStoppingWriters() {
+        LocalDateTime now = LocalDateTime.now();
+        availabilityIndex.add(booking(1L, now.minusHours(3), now.minusHours(2)));
+        availabilityIndex.add(booking(2L, hour(10), hour(12)));
+        Item other = Helper.createItem(2L, item.getOwner());
+        Booking ended = booking(3L, now.minusHours(3), now.minusHours(1));
+        ended.setItem(other);
+        availabilityIndex.add(ended);
+        clearInvocations(itemLocks);
+
+        availabilityIndex.prune();
+
+        assertTrue(availabilityIndex.isFree(1L, now.minusHours(3), now.minusHours(2)));
+        assertFalse(availabilityIndex.isFree(1L, hour(10), hour(12)));
+        assertTrue(availabilityIndex.isFree(2L, now.minusHours(3), now.minusHours(1)));
+        verify(itemLocks, never()).lockEvery();
+        verify(itemLocks, times(1)).get(2L);
+    }
+
+    @Test
+    void getFreeWindows_shouldReturnGapsBetweenBookings() {
+        availabilityIndex.add(booking(1L, hour(10), hour(12)));
+        availabilityIndex.add(booking(2L, hour(11), hour(14)));
+        availabilityIndex.add(booking(3L, hour(16), hour(18)));
+        availabilityIndex.add(booking(4L, hour(30), hour(31)));
+
+        assertEquals(List.of(
+                        new TimeWindow(hour(8), hour(10)),
+                        new TimeWindow(hour(14), hour(16)),
+                        new TimeWindow(hour(18), hour(20))),
+                availabilityIndex.getFreeWindows(1L, hour(8), hour(20)));
+        assertEquals(List.of(new TimeWindow(hour(14), hour(16))),
+                availabilityIndex.getFreeWindows(1L, hour(12), hour(17)));
+        assertEquals(List.of(new TimeWindow(hour(8), hour(20))),
+                availabilityIndex.getFreeWindows(2L, hour(8), hour(20)));
+    }
+
+    @Test
+    void remove_shouldFreeRejectedBooking() {
+        Booking booking = booking(1L, hour(10), hour(12));
+        availabilityIndex.add(booking);
+        availabilityIndex.remove(booking);
+
+        assertTrue(availabilityIndex.isFree(1L, hour(10), hour(12)));
+    }
+
+    @Test
+    void removeAll_shouldFreeBookingsOfUser() {
+        availabilityIndex.add(booking(1L, hour(10), hour(12)));
+        availabilityIndex.add(booking(2L, hour(12), hour(14)));
+        when(bookingRepository.findAllIntervalsByUserId(anyLong(), eq(AvailabilityIndex.BLOCKING_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(interval(1L, 1L, hour(10), hour(12))));
+
+        availabilityIndex.removeAll(availabilityIndex.findAllOfUser(booker.getId()));
+
+        assertTrue(availabilityIndex.isFree(1L, hour(10), hour(12)));
+        assertFalse(availabilityIndex.isFree(1L, hour(12), hour(14)));
+    }
+
+    private Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = Helper.createBokking(id, item, booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+
+    private static BookingInterval interval(long id, long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    private static LocalDateTime hour(long hour) {
+        return BASE.plusHours(hour);
+    }
+}
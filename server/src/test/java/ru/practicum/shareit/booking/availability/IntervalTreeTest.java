@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlaps_shouldTreatIntervalsAsHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1L, hour(10), hour(12));
+
+        assertTrue(tree.overlaps(hour(11), hour(13)));
+        assertTrue(tree.overlaps(hour(9), hour(14)));
+        assertFalse(tree.overlaps(hour(12), hour(13)));
+        assertFalse(tree.overlaps(hour(8), hour(10)));
+    }
+
+    @Test
+    void remove_shouldFreeInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1L, hour(10), hour(12));
+        tree.insert(2L, hour(10), hour(11));
+
+        assertTrue(tree.remove(1L, hour(10)));
+        assertFalse(tree.remove(1L, hour(10)));
+        assertFalse(tree.overlaps(hour(11), hour(12)));
+        assertTrue(tree.overlaps(hour(10), hour(11)));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void removeEnded_shouldKeepIntervalsEndingAfterMoment() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(1L, hour(1), hour(2));
+        tree.insert(2L, hour(1), hour(5));
+        tree.insert(3L, hour(3), hour(4));
+        tree.insert(4L, hour(6), hour(7));
+
+        assertEquals(2, tree.removeEnded(hour(4)));
+        assertEquals(2, tree.size());
+        assertFalse(tree.overlaps(hour(0), hour(1)));
+        assertEquals(List.of(new TimeWindow(hour(1), hour(5)), new TimeWindow(hour(6), hour(7))),
+                tree.findOverlapping(hour(0), hour(10)));
+    }
+
+    @Test
+    void operations_shouldMatchLinearScan() {
+        Random random = new Random(7);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+
+        for (long id = 0; id < 5000; id++) {
+            if (!intervals.isEmpty() && random.nextInt(4) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(tree.remove(removed[0], hour(removed[1])));
+            } else {
+                long start = random.nextInt(10000);
+                long[] interval = {id, start, start + 1 + random.nextInt(48)};
+                intervals.add(interval);
+                tree.insert(interval[0], hour(interval[1]), hour(interval[2]));
+            }
+
+            long start = random.nextInt(10000);
+            long end = start + 1 + random.nextInt(48);
+            List<long[]> expected = intervals.stream()
+                    .filter(interval -> interval[1] < end && start < interval[2])
+                    .sorted(Comparator.<long[]>comparingLong(interval -> interval[1])
+                            .thenComparingLong(interval -> interval[0]))
+                    .collect(Collectors.toList());
+
+            assertEquals(!expected.isEmpty(), tree.overlaps(hour(start), hour(end)));
+            assertEquals(expected.stream()
+                            .map(interval -> new TimeWindow(hour(interval[1]), hour(interval[2])))
+                            .collect(Collectors.toList()),
+                    tree.findOverlapping(hour(start), hour(end)));
+        }
+
+        assertEquals(intervals.size(), tree.size());
+    }
+
+    private static LocalDateTime hour(long hour) {
+        return BASE.plusHours(hour);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ItemLocksTest {
+    @Test
+    void get_shouldReturnSameLockForItem() {
+        ItemLocks itemLocks = new ItemLocks(10);
+
+        assertSame(itemLocks.get(42L), itemLocks.get(42L));
+    }
+
+    @Test
+    void get_shouldSpreadItemsOverStripes() {
+        ItemLocks itemLocks = new ItemLocks(16);
+        Set<Lock> locks = new HashSet<>();
+        for (long itemId = 0; itemId < 16; itemId++) {
+            locks.add(itemLocks.get(itemId));
+        }
+
+        assertEquals(16, locks.size());
+    }
+}
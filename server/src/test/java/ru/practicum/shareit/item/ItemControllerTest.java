@@ -12,6 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.availability.TimeWindow;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.error.ErrorHandler;
 import ru.practicum.shareit.error.model.DataNotFoundException;
@@ -20,6 +21,7 @@ import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.testUtils.Helper;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +30,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -74,7 +77,7 @@ class ItemControllerTest {
     @SneakyThrows
     @Test
     void getByOwner_shouldReturnEmptyList() {
-        when(itemService.getByOwner(anyLong())).thenReturn(List.of());
+        when(itemService.getByOwner(anyLong(), any(), any())).thenReturn(List.of());
 
         mockMvc.perform(get("/items").header(Helper.HEADER_USER_ID, userId))
                 .andExpect(status().isOk())
@@ -84,9 +87,12 @@ class ItemControllerTest {
     @SneakyThrows
     @Test
     void getByOwner_shouldReturnListOfItemDto() {
-        when(itemService.getByOwner(anyLong())).thenReturn(items);
+        when(itemService.getByOwner(anyLong(), eq(0), eq(10))).thenReturn(items);
 
-        mockMvc.perform(get("/items").header(Helper.HEADER_USER_ID, userId))
+        mockMvc.perform(get("/items")
+                        .header(Helper.HEADER_USER_ID, userId)
+                        .param("from", "0")
+                        .param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(items)));
     }
@@ -122,10 +128,29 @@ class ItemControllerTest {
     void search_shouldReturnListOfItemDto() {
         String query = "test";
 
-        when(itemService.search(anyString())).thenReturn(List.of(itemDto));
+        when(itemService.search(anyString(), any(), any())).thenReturn(List.of(itemDto));
 
         mockMvc.perform(get("/items/search").param("text", query))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
+    }
+
+    @SneakyThrows
+    @Test
+    void search_shouldReturnTotalCountHeader() {
+        String query = "test";
+
+        when(itemService.search(query, 0, 1)).thenReturn(List.of(itemDto));
+        when(itemService.searchCount(query)).thenReturn(3L);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", query)
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("count", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
     }
 
@@ -209,4 +234,19 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(jsonDto));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAvailability_shouldReturnFreeWindows() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        List<TimeWindow> windows = List.of(new TimeWindow(from, to));
+        when(itemService.getAvailability(1L, from, to)).thenReturn(windows);
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(windows)));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.testUtils.Helper;
+
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemViewCacheTest {
+    private final ItemViewCache cache = new ItemViewCache(new SimpleMeterRegistry(), 2);
+
+    @Test
+    void get_shouldReturnStoredViewUntilItExpires() {
+        cache.put(cache.version(1L), 1L, view(1L, LocalDateTime.now().plusHours(1)));
+        cache.put(cache.version(2L), 2L, view(2L, LocalDateTime.now().minusSeconds(1)));
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void put_shouldSkipViewLoadedBeforeInvalidation() {
+        long version = cache.version(1L);
+        cache.invalidate(1L);
+        cache.put(version, 1L, view(1L, null));
+
+        assertNull(cache.get(1L));
+
+        version = cache.version(1L);
+        cache.invalidateAll();
+        cache.put(version, 1L, view(1L, null));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_shouldKeepViewLoadedWhileOtherItemWasInvalidated() {
+        long version = cache.version(1L);
+        cache.invalidate(2L);
+        cache.put(version, 1L, view(1L, null));
+
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void invalidate_shouldDropView() {
+        cache.put(cache.version(1L), 1L, view(1L, null));
+        cache.put(cache.version(2L), 2L, view(2L, null));
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+
+        cache.invalidateAll();
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void put_shouldKeepHotViewsWhileEvictingPastMaxSize() {
+        ItemViewCache bounded = new ItemViewCache(new SimpleMeterRegistry(), 100);
+        for (long itemId = 1; itemId <= 100; itemId++) {
+            bounded.put(bounded.version(itemId), itemId, view(itemId, null));
+        }
+        for (int i = 0; i < 5; i++) {
+            LongStream.rangeClosed(1, 10).forEach(bounded::get);
+            bounded.size();
+        }
+        for (long itemId = 101; itemId <= 300; itemId++) {
+            bounded.put(bounded.version(itemId), itemId, view(itemId, null));
+        }
+
+        assertEquals(100, bounded.size());
+        LongStream.rangeClosed(1, 10).forEach(itemId -> assertNotNull(bounded.get(itemId)));
+    }
+
+    @Test
+    void viewFor_shouldHideBookingsFromOtherUsers() {
+        ItemDto itemDto = Helper.createItemDto(1L, 1L);
+        itemDto.setLastBooking(Helper.createShortBookingDto(1L, 2L));
+        CachedItemView view = new CachedItemView(1L, itemDto, null);
+
+        assertEquals(itemDto, view.viewFor(1L));
+        assertNotSame(view.viewFor(1L), view.viewFor(1L));
+        assertNull(view.viewFor(2L).getLastBooking());
+    }
+
+    private CachedItemView view(long itemId, LocalDateTime expiresAt) {
+        return new CachedItemView(1L, Helper.createItemDto(itemId, 1L), expiresAt);
+    }
+}
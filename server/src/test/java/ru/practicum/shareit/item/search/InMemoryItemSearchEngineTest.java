@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.testUtils.Helper;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private User owner;
+    private User otherOwner;
+
+    @BeforeEach
+    void setUp() {
+        owner = Helper.createUser(1L);
+        otherOwner = Helper.createUser(2L);
+
+        when(itemRepository.findAllAvailable()).thenReturn(List.of(
+                createItem(1L, "Drill", "Powerful cordless drill", owner),
+                createItem(2L, "Saw", "Hand saw for wood", owner),
+                createItem(3L, "Screwdriver", "Electric drill driver", otherOwner),
+                createItem(4L, "Ladder", "Aluminium", otherOwner)
+        ));
+
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_shouldMatchSubstringInNameOrDescription() {
+        assertEquals(List.of(1L, 3L), ids(searchEngine.search("dRiL", null)));
+        assertEquals(List.of(2L), ids(searchEngine.search("wood", null)));
+        assertEquals(List.of(), ids(searchEngine.search("hammer", null)));
+    }
+
+    @Test
+    void search_shouldMatchQueriesShorterThanTrigram() {
+        assertEquals(List.of(2L, 4L), ids(searchEngine.search("a", null)));
+        assertEquals(List.of(2L), ids(searchEngine.search("sa", null)));
+    }
+
+    @Test
+    void search_shouldNotMatchAcrossNameAndDescription() {
+        assertEquals(List.of(), ids(searchEngine.search("drillpow", null)));
+    }
+
+    @Test
+    void search_shouldApplyPageable() {
+        assertEquals(List.of(3L, 4L), ids(searchEngine.search("r", PageRequest.of(1, 2))));
+        assertEquals(4L, searchEngine.count("r"));
+        assertEquals(2L, searchEngine.count("drill"));
+    }
+
+    @Test
+    void index_shouldReplaceAndDropUnavailableItems() {
+        Item drill = createItem(1L, "Hammer", "Steel hammer", owner);
+        searchEngine.index(drill);
+
+        assertEquals(List.of(3L), ids(searchEngine.search("drill", null)));
+        assertEquals(List.of(1L), ids(searchEngine.search("hammer", null)));
+
+        drill.setAvailable(false);
+        searchEngine.index(drill);
+
+        assertEquals(List.of(), ids(searchEngine.search("hammer", null)));
+    }
+
+    @Test
+    void rebuild_shouldKeepItemIndexedWhileLoading() throws InterruptedException {
+        Thread indexer = new Thread(() -> searchEngine.index(createItem(5L, "Hammer", "Steel hammer", owner)));
+        when(itemRepository.findAllAvailable()).thenAnswer(invocation -> {
+            indexer.start();
+            indexer.join(100);
+            return List.of(createItem(1L, "Drill", "Powerful cordless drill", owner));
+        });
+
+        searchEngine.rebuild();
+        indexer.join();
+
+        assertEquals(List.of(5L), ids(searchEngine.search("hammer", null)));
+        assertEquals(List.of(1L), ids(searchEngine.search("drill", null)));
+    }
+
+    @Test
+    void remove_shouldDropItems() {
+        searchEngine.remove(1L);
+
+        assertEquals(List.of(3L), ids(searchEngine.search("drill", null)));
+
+        searchEngine.removeByOwner(otherOwner.getId());
+
+        assertEquals(List.of(), ids(searchEngine.search("drill", null)));
+        assertEquals(List.of(2L), ids(searchEngine.search("a", null)));
+    }
+
+    private static Item createItem(long id, String name, String description, User owner) {
+        Item item = Helper.createItem(id, owner);
+        item.setName(name);
+        item.setDescription(description);
+
+        return item;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.testUtils.EmbeddedPostgresTest;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = "shareit.search.engine=postgres")
+class PostgresItemSearchEngineTest extends EmbeddedPostgresTest {
+    @Autowired
+    private ItemSearchEngine searchEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (user_id, name, email) values (1, 'owner', 'owner@shareit.ru')");
+        insertItem(1, "Ladder", "Fits a cordless drill case", true);
+        insertItem(2, "Cordless drill", "Powerful", true);
+        insertItem(3, "Drill bits", "Set for a drill", false);
+        insertItem(4, "Saw", "Hand saw", true);
+    }
+
+    @Test
+    void searchEngine_shouldBePostgres() {
+        assertInstanceOf(PostgresItemSearchEngine.class, searchEngine);
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirstAndSkipUnavailable() {
+        assertEquals(List.of(2L, 1L), ids(searchEngine.search("dRiLl", null)));
+        assertEquals(List.of(1L), ids(searchEngine.search("drill", PageRequest.of(1, 1))));
+        assertEquals(List.of(), ids(searchEngine.search("hammer", null)));
+    }
+
+    @Test
+    void count_shouldCountAvailableMatches() {
+        assertEquals(2L, searchEngine.count("drill"));
+        assertEquals(1L, searchEngine.count("saw"));
+    }
+
+    @Test
+    void search_shouldUseTrigramIndexes() {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                ResultSet resultSet = statement.executeQuery("explain select * from item i " +
+                        "where i.available " +
+                        "and (upper(i.name) like '%DRILL%' or upper(i.description) like '%DRILL%')");
+                StringBuilder result = new StringBuilder();
+                while (resultSet.next()) {
+                    result.append(resultSet.getString(1)).append('\n');
+                }
+                statement.execute("reset enable_seqscan");
+
+                return result.toString();
+            }
+        });
+
+        assertThat(plan).contains("item_name_trgm_idx", "item_description_trgm_idx");
+    }
+
+    private void insertItem(long id, String name, String description, boolean available) {
+        jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) values (?, ?, ?, ?, 1)",
+                id, name, description, available);
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,8 +11,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.BookingMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.availability.TimeWindow;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.CommentMapper;
@@ -21,8 +27,17 @@ import ru.practicum.shareit.error.model.BadRequestException;
 import ru.practicum.shareit.error.model.DataNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewMapper;
+import ru.practicum.shareit.item.view.ItemViews;
+import ru.practicum.shareit.item.view.ItemsChangedEvent;
+import ru.practicum.shareit.loader.DataLoaderRegistry;
+import ru.practicum.shareit.pagination.PaginationService;
 import ru.practicum.shareit.testUtils.Helper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
@@ -30,11 +45,15 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -52,14 +71,38 @@ class ItemServiceImplTest {
     @Mock
     private UserServiceImpl userService;
 
+    @Mock
+    private PaginationService paginationService;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemViews itemViews;
+
+    @Spy
+    private ItemLocks itemLocks = new ItemLocks(16);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
     @Spy
-    private ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+    private ItemViewMapper itemViewMapper = new ItemViewMapper(new ObjectMapper().findAndRegisterModules());
 
     @Spy
-    private BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+    private ItemViewCache itemViewCache = new ItemViewCache(new SimpleMeterRegistry(), 16);
+
+    @Spy
+    private ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
 
     @Spy
     private CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
@@ -83,7 +126,7 @@ class ItemServiceImplTest {
 
     @Test
     void getById_shouldThrowDataNotFoundException() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemViews.findAll(List.of(itemId))).thenReturn(Map.of());
 
         assertThatThrownBy(
                 () -> itemService.getById(itemId, userId)
@@ -94,61 +137,195 @@ class ItemServiceImplTest {
     void getById_shouldReturnItemDto() {
         item.setOwner(user);
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItemIdAndStatusNotAndStartAfterOrderByStartAsc(
-                anyLong(),
-                any(BookingStatus.class),
-                any(LocalDateTime.class))
-        ).thenReturn(Optional.empty());
-        when(bookingRepository.findFirstByItemIdAndStatusNotAndStartBeforeOrderByStartDesc(
-                anyLong(),
-                any(BookingStatus.class),
-                any(LocalDateTime.class))
-        ).thenReturn(Optional.empty());
-        when(commentRepository.findAllByItemId(
-                anyLong())
-        ).thenReturn(List.of());
+        ItemView view = view(item, null);
+        when(itemViews.findAll(List.of(itemId))).thenReturn(Map.of(itemId, view));
 
         ItemDto result = itemService.getById(itemId, userId);
         assertEquals(result, itemDto);
     }
 
+    @Test
+    void getById_shouldHideBookingsFromNotOwner() {
+        Booking nextBooking = Helper.createBokking(1L, item, Helper.createUser(5L));
+        nextBooking.setStart(LocalDateTime.now().plusDays(1));
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        summary.setNext(nextBooking);
+
+        ItemView view = view(item, summary);
+        when(itemViews.findAll(List.of(itemId))).thenReturn(Map.of(itemId, view));
+
+        assertEquals(itemDto, itemService.getById(itemId, 5L));
+        verify(itemViewCache, never()).put(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getById_shouldServeCachedOwnerView() {
+        Booking nextBooking = Helper.createBokking(1L, item, Helper.createUser(5L));
+        nextBooking.setStart(LocalDateTime.now().plusDays(1));
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        summary.setNext(nextBooking);
+
+        ItemView view = view(item, summary);
+        when(itemViews.findAll(List.of(itemId))).thenReturn(Map.of(itemId, view));
+
+        ItemDto ownerView = itemService.getById(itemId, userId);
+        assertEquals(ownerView, itemService.getById(itemId, userId));
+        assertEquals(1L, ownerView.getNextBooking().getId());
+
+        ItemDto otherView = itemService.getById(itemId, 5L);
+        assertNull(otherView.getNextBooking());
+        assertEquals(ownerView.getName(), otherView.getName());
+        verify(itemViews, times(1)).findAll(List.of(itemId));
+    }
+
+    @Test
+    void getById_shouldProjectViewWhoseNextBookingStarted() {
+        User booker = Helper.createUser(5L);
+        Booking started = Helper.createBokking(1L, item, booker);
+        started.setStart(LocalDateTime.now().minusNanos(1));
+        ItemBookingSummary staleSummary = new ItemBookingSummary(itemId);
+        staleSummary.setNext(started);
+        Booking next = Helper.createBokking(2L, item, booker);
+        next.setStart(LocalDateTime.now().plusDays(1));
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        summary.setLast(started);
+        summary.setNext(next);
+
+        ItemView staleView = view(item, staleSummary);
+        ItemView view = view(item, summary);
+        when(itemViews.findAll(List.of(itemId))).thenReturn(Map.of(itemId, staleView));
+        when(itemViews.project(List.of(itemId))).thenReturn(List.of(view));
+
+        ItemDto result = itemService.getById(itemId, userId);
+        assertEquals(1L, result.getLastBooking().getId());
+        assertEquals(2L, result.getNextBooking().getId());
+        assertEquals(result, itemService.getById(itemId, userId));
+        verify(itemViews, times(1)).findAll(List.of(itemId));
+    }
+
+    @Test
+    void getById_shouldNotCacheViewWhoseNextBookingStarted() {
+        Booking nextBooking = Helper.createBokking(1L, item, Helper.createUser(5L));
+        nextBooking.setStart(LocalDateTime.now().minusNanos(1));
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        summary.setNext(nextBooking);
+
+        ItemView view = view(item, summary);
+        when(itemViews.findAll(List.of(itemId))).thenReturn(Map.of(itemId, view));
+        when(itemViews.project(List.of(itemId))).thenReturn(List.of(view));
+
+        itemService.getById(itemId, userId);
+
+        verify(itemViewCache, never()).put(anyLong(), anyLong(), any());
+    }
+
     @Test
     void getByOwner_shouldReturnEmptyList() {
-        when(itemRepository.findAllByOrderById()).thenReturn(List.of());
+        when(itemViews.findByOwner(anyLong(), any())).thenReturn(List.of());
+
+        assertEquals(itemService.getByOwner(userId, null, null), List.of());
+    }
 
-        assertEquals(itemService.getByOwner(userId), List.of());
+    @Test
+    void getByOwner_shouldReturnItemsWithBookingsAndComments() {
+        User booker = Helper.createUser(1L);
+        Item secondItem = Helper.createItem(1L, owner);
+        Booking lastBooking = Helper.createBokking(1L, item, booker);
+        Booking nextBooking = Helper.createBokking(2L, item, booker);
+        CommentDto comment = commentMapper.toDto(Helper.createComment(1L, secondItem, booker));
+        ItemBookingSummary summary = new ItemBookingSummary(0L);
+        summary.setLast(lastBooking);
+        summary.setNext(nextBooking);
+
+        when(paginationService.getPageable(0, 10)).thenReturn(PageRequest.of(0, 10));
+        List<ItemView> views = List.of(
+                view(item, summary),
+                itemViewMapper.toView(secondItem, null, List.of(comment)));
+        when(itemViews.findByOwner(userId, PageRequest.of(0, 10))).thenReturn(views);
+
+        List<ItemDto> result = itemService.getByOwner(userId, 0, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(Helper.createShortBookingDto(1L, 1L), result.get(0).getLastBooking());
+        assertEquals(Helper.createShortBookingDto(2L, 1L), result.get(0).getNextBooking());
+        assertEquals(List.of(), result.get(0).getComments());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(List.of(comment), result.get(1).getComments());
+    }
+
+    @Test
+    void getAvailability_shouldReturnFreeWindows() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        List<TimeWindow> windows = List.of(new TimeWindow(from, to));
+
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(availabilityIndex.getFreeWindows(itemId, from, to)).thenReturn(windows);
+
+        assertEquals(windows, itemService.getAvailability(itemId, from, to));
+    }
+
+    @Test
+    void getAvailability_shouldThrowBadRequestException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        assertThatThrownBy(
+                () -> itemService.getAvailability(itemId, from, from)
+        ).isInstanceOf(BadRequestException.class);
     }
 
     @Test
     void search_shouldThrowBadRequestException() {
         assertThatThrownBy(
-                () -> itemService.search(null)
+                () -> itemService.search(null, null, null)
         ).isInstanceOf(BadRequestException.class);
     }
 
     @Test
     void search_shouldReturnEmptyList() {
-        assertEquals(itemService.search(" "), List.of());
+        assertEquals(itemService.search(" ", null, null), List.of());
     }
 
     @Test
     void search_shouldReturnList() {
         item.setOwner(user);
 
-        when(itemRepository.findAllByText(anyString())).thenReturn(List.of(item));
+        when(itemSearchEngine.search(anyString(), any())).thenReturn(List.of(item));
+
+        assertEquals(itemService.search("test", null, null), List.of(itemDto));
+    }
+
+    @Test
+    void search_shouldPassPageable() {
+        when(paginationService.getPageable(10, 5)).thenReturn(PageRequest.of(2, 5));
+        when(itemSearchEngine.search("test", PageRequest.of(2, 5))).thenReturn(List.of(item));
+
+        assertEquals(itemService.search("test", 10, 5), List.of(itemDto));
+    }
+
+    @Test
+    void searchCount_shouldReturnCount() {
+        when(itemSearchEngine.count("test")).thenReturn(7L);
 
-        assertEquals(itemService.search("test"), List.of(itemDto));
+        assertEquals(7L, itemService.searchCount("test"));
+        assertEquals(0L, itemService.searchCount(" "));
+        assertThatThrownBy(
+                () -> itemService.searchCount(null)
+        ).isInstanceOf(BadRequestException.class);
     }
 
     @Test
     void add_shouldReturnItemDto() {
         item.setOwner(user);
 
-        when(userService.findById(userId)).thenReturn(user);
+        when(userService.getReference(userId)).thenReturn(user);
         when(itemRepository.save(any(Item.class))).thenAnswer(i -> i.getArguments()[0]);
 
         assertEquals(itemService.add(itemDto, userId), itemDto);
+        verify(itemSearchEngine, Mockito.times(1)).index(any(Item.class));
+        verify(itemViews).projectNew(any(Item.class));
     }
 
     @Test
@@ -177,6 +354,7 @@ class ItemServiceImplTest {
         when(itemRepository.getById(anyLong())).thenReturn(item);
 
         assertEquals(itemService.update(itemId, itemDto, userId), itemDto);
+        verify(eventPublisher).publishEvent(ItemsChangedEvent.of(itemId));
     }
 
     @Test
@@ -188,6 +366,8 @@ class ItemServiceImplTest {
 
         itemService.delete(itemId, userId);
         verify(itemRepository, Mockito.times(1)).delete(item);
+        verify(itemSearchEngine, Mockito.times(1)).remove(itemId);
+        verify(availabilityIndex, Mockito.times(1)).removeItem(itemId);
     }
 
     @Test
@@ -230,10 +410,16 @@ class ItemServiceImplTest {
                 any(Comment.class))).thenAnswer(i -> i.getArguments()[0]);
         CommentDto result = itemService.commentSave(itemId, userId, commentDto);
         commentDto.setCreated(result.getCreated());
+        verify(itemViewCache).invalidate(itemId);
+        verify(eventPublisher).publishEvent(ItemsChangedEvent.of(itemId));
 
         assertEquals(
                 result,
                 commentDto
         );
     }
-}
\ No newline at end of file
+
+    private ItemView view(Item item, ItemBookingSummary summary) {
+        return itemViewMapper.toView(item, summary, List.of());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ItemBookingSummariesTest {
+    private static final long OWNER = 701;
+    private static final long BOOKER = 702;
+    private static final long ITEM = 701;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(10).withNano(0);
+
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'owner', 'owner701@shareit.ru')", OWNER);
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'booker', 'booker702@shareit.ru')", BOOKER);
+        jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                + "values (?, 'Drill', 'Cordless', true, ?)", ITEM, OWNER);
+        availabilityIndex.removeItem(ITEM);
+    }
+
+    @Test
+    void findAll_shouldComputeMissingSummaryOnce() {
+        assertTrue(summaryRepository.findById(ITEM).isEmpty());
+
+        ItemBookingSummary summary = itemBookingSummaries.findAll(List.of(ITEM)).get(ITEM);
+
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        assertTrue(summaryRepository.findById(ITEM).isPresent());
+    }
+
+    @Test
+    void create_shouldMoveNextBookingToEarliestStart() {
+        itemBookingSummaries.findAll(List.of(ITEM));
+        BookingDto later = book(START.plusDays(2));
+        BookingDto earlier = book(START);
+        book(START.plusDays(4));
+
+        ItemBookingSummary summary = summaryRepository.findById(ITEM).orElseThrow();
+
+        assertEquals(earlier.getId(), summary.getNextBookingId());
+        assertEquals(BOOKER, summary.getNextBookerId());
+        assertEquals(START, summary.getNextStart());
+
+        bookingService.update(earlier.getId(), OWNER, false);
+
+        assertEquals(later.getId(), summaryRepository.findById(ITEM).orElseThrow().getNextBookingId());
+    }
+
+    @Test
+    void rollForward_shouldTurnStartedNextBookingIntoLast() {
+        LocalDateTime started = LocalDateTime.now().minusMinutes(5).withNano(0);
+        jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (701, ?, ?, ?, ?, ?, 'APPROVED')", started, started.plusHours(1), ITEM, OWNER, BOOKER);
+        jdbcTemplate.update("insert into item_booking_summary (item_id, next_booking_id, next_booker_id, next_start) "
+                + "values (?, 701, ?, ?)", ITEM, BOOKER, started);
+
+        itemBookingSummaries.rollForward();
+
+        ItemBookingSummary summary = summaryRepository.findById(ITEM).orElseThrow();
+        assertEquals(701L, summary.getLastBookingId());
+        assertEquals(started, summary.getLastStart());
+        assertNull(summary.getNextBookingId());
+    }
+
+    private BookingDto book(LocalDateTime start) {
+        BookingDto booking = BookingDto.builder()
+                .itemId(ITEM)
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+
+        return bookingService.create(BOOKER, booking);
+    }
+}
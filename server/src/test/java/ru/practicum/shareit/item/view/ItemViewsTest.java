@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.view;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Not transactional: views are projected when the writes commit.
+ */
+@SpringBootTest
+class ItemViewsTest {
+    private static final long OWNER = 801;
+    private static final long BOOKER = 802;
+    private static final long ITEM = 801;
+
+    @Autowired
+    private ItemViews itemViews;
+
+    @Autowired
+    private ItemViewRepository viewRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'owner', 'owner801@shareit.ru')", OWNER);
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, 'booker', 'booker802@shareit.ru')", BOOKER);
+        for (long itemId = ITEM; itemId < ITEM + 5; itemId++) {
+            jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id) "
+                    + "values (?, 'Drill', 'Cordless', true, ?)", itemId, OWNER);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityIndex.removeItem(ITEM);
+        jdbcTemplate.update("delete from users where user_id in (?, ?)", OWNER, BOOKER);
+    }
+
+    @Test
+    void writes_shouldProjectItemView() {
+        LocalDateTime past = LocalDateTime.now().minusDays(2).withNano(0);
+        jdbcTemplate.update("insert into booking (booking_id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "values (801, ?, ?, ?, ?, ?, 'APPROVED')", past, past.plusHours(1), ITEM, OWNER, BOOKER);
+        itemViews.project(List.of(ITEM));
+
+        BookingDto next = bookingService.create(BOOKER, BookingDto.builder()
+                .itemId(ITEM)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+        itemService.commentSave(ITEM, BOOKER, CommentDto.builder().text("Fine").build());
+        itemService.update(ITEM, ItemDto.builder().name("Hammer").build(), OWNER);
+
+        ItemDto view = itemService.getById(ITEM, OWNER);
+        assertEquals("Hammer", view.getName());
+        assertEquals(801L, view.getLastBooking().getId());
+        assertEquals(next.getId(), view.getNextBooking().getId());
+        assertEquals("booker", view.getComments().get(0).getAuthorName());
+
+        userService.update(BOOKER, UserDto.builder().name("renamed").build());
+
+        assertEquals("renamed", itemService.getByOwner(OWNER, null, null).get(0).getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    void rebuild_shouldProjectEveryItemInChunks() throws Exception {
+        viewRepository.deleteAllByItemIdIn(List.of(ITEM, ITEM + 1, ITEM + 2, ITEM + 3, ITEM + 4));
+
+        int projected = new ItemViewRebuilder(itemViews, itemRepository, transactionTemplate, 2, 3, false).rebuild();
+
+        assertTrue(projected >= 5);
+        assertEquals(5, viewRepository.findAllByOwnerIdOrderByItemId(OWNER, null).size());
+    }
+
+    @Test
+    void projectMissing_shouldProjectOnlyItemsWithoutView() throws Exception {
+        itemViews.project(List.of(ITEM, ITEM + 1));
+        ItemViewRebuilder rebuilder = new ItemViewRebuilder(itemViews, itemRepository, transactionTemplate, 2, 3, false);
+
+        assertTrue(rebuilder.projectMissing() >= 3);
+        assertEquals(5, viewRepository.findAllByOwnerIdOrderByItemId(OWNER, null).size());
+        assertEquals(List.of(), itemRepository.findAllIdsWithoutView());
+        assertEquals(0, rebuilder.projectMissing());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.loader;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DataLoaderTest {
+    private final List<List<Long>> batches = new ArrayList<>();
+    private final DataLoader<Long, String> loader = new DataLoader<>(keys -> {
+        batches.add(keys);
+        return keys.stream()
+                .filter(key -> key % 2 == 0)
+                .collect(Collectors.toMap(Function.identity(), key -> "value " + key));
+    });
+
+    @Test
+    void load_shouldResolveRegisteredKeysWithSingleBatch() {
+        loader.register(List.of(1L, 2L, 2L, 4L));
+
+        assertEquals("value 2", loader.load(2L));
+        assertNull(loader.load(1L));
+        assertEquals("default", loader.load(3L, "default"));
+        assertEquals("value 4", loader.load(4L));
+        assertEquals(List.of(List.of(1L, 2L, 4L), List.of(3L)), batches);
+    }
+
+    @Test
+    void register_shouldSkipLoadedKeys() {
+        loader.load(2L);
+        loader.register(List.of(1L, 2L)).dispatch();
+        loader.dispatch();
+
+        assertEquals(List.of(List.of(2L), List.of(1L)), batches);
+    }
+
+    @Test
+    void getLoader_shouldReuseLoaderByNameWithinRequest() {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            DataLoader<Long, String> first = registry.getLoader("loader", keys -> Map.of());
+            DataLoader<Long, String> second = registry.getLoader("loader", keys -> Map.of());
+
+            assertSame(first, second);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void getLoader_shouldNotShareLoaderOutsideRequest() {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        DataLoader<Long, String> first = registry.getLoader("loader", keys -> Map.of());
+        DataLoader<Long, String> second = registry.getLoader("loader", keys -> Map.of());
+
+        assertNotSame(first, second);
+    }
+}
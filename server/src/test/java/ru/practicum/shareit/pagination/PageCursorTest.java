@@ -0,0 +1,24 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.model.BadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+    @Test
+    void decode_shouldReturnEncodedCursor() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2022, 9, 1, 12, 30, 15, 123000), 42L);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_shouldReturnBadRequestException() {
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("MjAyMg"));
+    }
+}
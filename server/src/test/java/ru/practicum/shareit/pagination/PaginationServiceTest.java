@@ -2,6 +2,7 @@ package ru.practicum.shareit.pagination;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.error.model.BadRequestException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,4 +32,19 @@ class PaginationServiceTest {
         assertInstanceOf(PageRequest.class, paginationService.getPageable(from, size));
         assertEquals(PageRequest.of(pageNumber, size), paginationService.getPageable(from, size));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPageable_shouldKeepOffsetNotMultipleOfSize() {
+        Pageable pageable = paginationService.getPageable(5, 10);
+
+        assertEquals(5, pageable.getOffset());
+        assertEquals(10, pageable.getPageSize());
+    }
+
+    @Test
+    void getLimit_shouldReturnSize() {
+        assertEquals(Integer.MAX_VALUE, paginationService.getLimit(null));
+        assertEquals(10, paginationService.getLimit(10));
+        assertThrows(BadRequestException.class, () -> paginationService.getLimit(0));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.testUtils.SqlCapture;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.testUtils.SqlCapture")
+@Transactional
+class ItemRequestQueryCountTest {
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (201, 'requestor', 'requestor@shareit.ru')");
+        jdbcTemplate.update("insert into users (user_id, name, email) values (202, 'viewer', 'viewer@shareit.ru')");
+        for (long id = 201; id <= 220; id++) {
+            jdbcTemplate.update("insert into users (user_id, name, email) values (?, ?, ?)",
+                    id + 100, "owner " + id, "owner" + id + "@shareit.ru");
+            jdbcTemplate.update("insert into request (request_id, description, created, requestor_id) values (?, ?, ?, ?)",
+                    id, "request " + id, LocalDateTime.now().minusMinutes(id), id % 2 == 0 ? 201 : id + 100);
+            jdbcTemplate.update("insert into item (item_id, name, description, available, owner_id, request_id) "
+                    + "values (?, 'Drill', 'Cordless', true, ?, ?)", id, id + 100, id);
+        }
+    }
+
+    @Test
+    void getAll_shouldNotDependOnPageSize() {
+        // the viewer lookup is served by the user cache after the first call
+        statements(1);
+
+        assertEquals(2, statements(2));
+        assertEquals(2, statements(20));
+    }
+
+    @Test
+    void getAll_shouldReturnItemsOfEveryRequest() {
+        List<ItemRequestDto> requests = itemRequestService.getAll(202, 0, 20);
+
+        assertEquals(20, requests.size());
+        requests.forEach(request -> assertEquals(List.of(request.getId()),
+                List.of(request.getItems().get(0).getRequestId())));
+    }
+
+    private int statements(int size) {
+        entityManager.clear();
+        SqlCapture.clear();
+        itemRequestService.getAll(202, 0, size);
+
+        return SqlCapture.statements().size();
+    }
+}
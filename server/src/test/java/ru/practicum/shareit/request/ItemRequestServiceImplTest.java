@@ -12,6 +12,8 @@ import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.error.model.DataNotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.loader.DataLoaderRegistry;
 import ru.practicum.shareit.pagination.PaginationService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -27,6 +29,8 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +47,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private PaginationService paginationService;
 
+    @Spy
+    private DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -114,7 +121,7 @@ class ItemRequestServiceImplTest {
     void getAllByRequestorId_shouldReturnListOfItemRequestDto() {
         when(userService.findById(anyLong())).thenReturn(user);
         when(paginationService.getPageable(anyInt(), anyInt())).thenReturn(PageRequest.of(1, 10));
-        when(itemRepository.findAllByRequestId(anyLong())).thenReturn(List.of());
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(List.of());
         when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(anyLong(), any(PageRequest.class))).thenReturn(list);
 
         assertEquals(itemRequestService.getAllByRequestorId(userId, 1, 10).size(), listDto.size());
@@ -132,12 +139,31 @@ class ItemRequestServiceImplTest {
     void getAll_shouldReturnListOfItemRequestDto() {
         when(userService.findById(anyLong())).thenReturn(user);
         when(paginationService.getPageable(anyInt(), anyInt())).thenReturn(PageRequest.of(1, 10));
-        when(itemRepository.findAllByRequestId(anyLong())).thenReturn(List.of());
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(List.of());
         when(itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDesc(anyLong(), any(PageRequest.class))).thenReturn(list);
 
         assertEquals(itemRequestService.getAll(userId, 1, 10).size(), listDto.size());
     }
 
+    @Test
+    void getAll_shouldLoadItemsOfPageWithSingleQuery() {
+        Item first = Helper.createItem(1L, user);
+        Item second = Helper.createItem(2L, user);
+        second.setRequestId(3L);
+
+        when(userService.findById(anyLong())).thenReturn(user);
+        when(paginationService.getPageable(anyInt(), anyInt())).thenReturn(PageRequest.of(0, 10));
+        when(itemRequestRepository.findAllByRequestorIdIsNotOrderByCreatedDesc(anyLong(), any(PageRequest.class))).thenReturn(list);
+        when(itemRepository.findAllByRequestIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(first, second));
+
+        List<ItemRequestDto> result = itemRequestService.getAll(userId, 0, 10);
+
+        assertEquals(List.of(itemMapper.toDto(first)), result.get(0).getItems());
+        assertEquals(List.of(), result.get(1).getItems());
+        assertEquals(List.of(itemMapper.toDto(second)), result.get(2).getItems());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyCollection());
+    }
+
     @Test
     void getById_shouldReturnDataNotFoundException() {
         when(itemRequestRepository.findById(anyLong())).thenThrow(DataNotFoundException.class);
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.testUtils;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public abstract class EmbeddedPostgresTest {
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        postgresProperties(registry, "postgres");
+    }
+
+    /**
+     * Points a context at a database of the shared server; test classes that leave rows or statistics behind
+     * register a database of their own instead of extending this class.
+     */
+    public static void postgresProperties(DynamicPropertyRegistry registry, String database) {
+        if (!"postgres".equals(database)) {
+            createDatabase(database);
+        }
+
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", database));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/common,classpath:db/migration/postgresql");
+    }
+
+    private static void createDatabase(String database) {
+        try (Connection connection = POSTGRES.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            ResultSet existing = statement.executeQuery("select 1 from pg_database where datname = '" + database + "'");
+            if (!existing.next()) {
+                statement.execute("create database " + database);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
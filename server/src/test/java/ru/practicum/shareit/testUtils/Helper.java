@@ -2,6 +2,7 @@ package ru.practicum.shareit.testUtils;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
@@ -85,6 +86,7 @@ public class Helper {
         return Booking.builder()
                 .id(id)
                 .item(item)
+                .owner(item.getOwner())
                 .status(BookingStatus.WAITING)
                 .start(START)
                 .end(END)
@@ -103,6 +105,10 @@ public class Helper {
                 .build();
     }
 
+    public static BookingSummaryDto createBookingSummaryDto(long id, long itemId, long bookerId) {
+        return new BookingSummaryDto(id, START, END, BookingStatus.WAITING, itemId, "item", bookerId);
+    }
+
     public static ShortBookingDto createShortBookingDto(long id, long bookerId) {
         return ShortBookingDto.builder()
                 .id(id)
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.testUtils.Helper;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void findById_shouldQueryRepositoryOncePerUser() {
+        User user = Helper.createUser(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), userCache.findById(1L));
+        assertEquals(Optional.of(user), userCache.findById(1L));
+        assertNotSame(userCache.findById(1L).get(), userCache.findById(1L).get());
+        verify(userRepository, times(1)).findById(1L);
+
+        assertEquals(3.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void findById_shouldNotCacheMissingUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(userCache.findById(1L).isEmpty());
+        assertTrue(userCache.findById(1L).isEmpty());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidate_shouldReloadUser() {
+        User user = Helper.createUser(1L);
+        User renamed = Helper.createUser(1L);
+        renamed.setName("renamed");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user), Optional.of(renamed));
+
+        userCache.findById(1L);
+        userCache.invalidate(1L);
+
+        assertEquals("renamed", userCache.findById(1L).get().getName());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", UserCache.NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
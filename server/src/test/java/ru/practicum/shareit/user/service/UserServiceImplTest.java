@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.service;
 
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,16 +11,28 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.error.model.DataNotFoundException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.view.ItemViews;
+import ru.practicum.shareit.item.view.ItemsChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.testUtils.Helper;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -33,6 +47,33 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private ItemViews itemViews;
+
+    @Spy
+    private ItemLocks itemLocks = new ItemLocks(16);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache secondLevelCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -57,7 +98,7 @@ class UserServiceImplTest {
 
     @Test
     void testGetById_shouldReturnDataNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userCache.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThatThrownBy(
                 () -> userService.getById(userId)
@@ -66,7 +107,7 @@ class UserServiceImplTest {
 
     @Test
     void testGetById_shouldReturnUserDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
 
         assertThat(userService.getById(userId)).isEqualTo(userDto);
     }
@@ -112,34 +153,58 @@ class UserServiceImplTest {
         when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArguments()[0]);
 
         assertThat(userService.update(userId, userDto)).isEqualTo(userDto);
+        Mockito.verify(userCache, Mockito.times(1)).invalidate(userId);
+        Mockito.verify(itemViewCache, Mockito.times(1)).invalidateAll();
     }
 
     @Test
     void testDelete_shouldReturnDataNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userCache.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> userService.delete(userId));
     }
 
     @Test
     void testDelete_shouldReturnVoid() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemViews.findItemIdsShowing(userId)).thenReturn(Set.of(3L));
+        // not a field: SessionFactory is an EntityManagerFactory, so @InjectMocks could pass it to the constructor
+        SessionFactory sessionFactory = Mockito.mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(secondLevelCache);
 
         userService.delete(userId);
         Mockito.verify(userRepository, Mockito.times(1)).delete(user);
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).removeByOwner(userId);
+        Mockito.verify(availabilityIndex, Mockito.times(1)).findAllOfUser(userId);
+        Mockito.verify(availabilityIndex, Mockito.times(1)).removeAll(any());
+        Mockito.verify(userCache, Mockito.times(1)).invalidate(userId);
+        Mockito.verify(itemViewCache, Mockito.times(1)).invalidateAll();
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(new ItemsChangedEvent(Set.of(3L)));
+        Mockito.verify(secondLevelCache, Mockito.times(1)).evictEntityData(Item.class);
+        Mockito.verify(secondLevelCache, Mockito.times(1)).evictEntityData(ItemRequest.class);
+        Mockito.verify(secondLevelCache, Mockito.times(1)).evictQueryRegions();
+    }
+
+    @Test
+    void testGetReference_shouldCheckUserExists() {
+        when(userCache.findById(userId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getReference(userId)).isInstanceOf(DataNotFoundException.class);
+        Mockito.verify(userRepository, Mockito.never()).getReferenceById(anyLong());
     }
 
     @Test
     void testFindById_shouldReturnDataNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userCache.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.findById(userId)).isInstanceOf(DataNotFoundException.class);
     }
 
     @Test
     void testFindById_shouldReturnUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.findById(anyLong())).thenReturn(Optional.of(user));
 
         assertThat(userService.findById(userId)).isEqualTo(user);
     }
-}
\ No newline at end of file
+}